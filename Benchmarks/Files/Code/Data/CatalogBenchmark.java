@@ -0,0 +1,323 @@
+package Files.Code.Data;
+
+import Files.Code.Auxiliary.CharacterAdapter;
+import Files.Code.Auxiliary.DomainAdapter;
+import Files.Code.Auxiliary.WeaponAdapter;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmarks of loading the catalog, looking items up and decoding their icons, used as a baseline for startup
+ * regressions.
+ * <p>
+ * The parsing and lookup benchmarks run against the shipped json files (scale 1) and against catalogs enlarged by the
+ * scale parameter, where every character, weapon, domain and material is copied with a numbered name. The copies
+ * reference the materials of the same copy, so every link can be resolved.
+ * <p>
+ * The icon benchmarks request the icon of every character and weapon through IconCache, once with an empty cache and
+ * once with all icons cached. The icons are taken from the atlases in the cache folder if the application has packed
+ * them, otherwise from their own files. Packing is turned off, so nothing is written while the icons are measured.
+ * <p>
+ * The benchmarks are not part of the application and are kept out of its source folder. They are in the Data package,
+ * so they can call the package-private loading steps of ToolData. The annotation processor of JMH generates the
+ * benchmark list when this class is compiled; run them with org.openjdk.jmh.Main CatalogBenchmark [JMH options].
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CatalogBenchmark {
+
+    /**
+     * An empty catalog and an executor for the parsing tasks.
+     */
+    @State(Scope.Benchmark)
+    public static class EmptyCatalog {
+        ExecutorService executor;
+
+        @Setup(Level.Trial)
+        public void startExecutor() {
+            executor = Executors.newFixedThreadPool(4, runnable -> {
+                Thread thread = new Thread(runnable, "GDApp benchmark worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        @Setup(Level.Invocation)
+        public void clear() {
+            clearCatalog();
+        }
+
+        @TearDown(Level.Trial)
+        public void stopExecutor() {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * The json files of a catalog enlarged by the scale, and that catalog installed and indexed, but not linked.
+     */
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        @Param({"1", "10", "100"})
+        public int scale;
+
+        Map<ToolData.DATA_CATEGORY, String> json;
+
+        @Setup(Level.Trial)
+        public void install() throws IOException {
+            json = enlarge(readShippedJson(), scale);
+            installCatalog(json);
+        }
+    }
+
+    /**
+     * A catalog that is installed again before every invocation, as a catalog can only be linked once.
+     */
+    @State(Scope.Benchmark)
+    public static class UnlinkedCatalog extends Catalog {
+        @Setup(Level.Invocation)
+        public void reinstall() throws IOException {
+            installCatalog(json);
+        }
+    }
+
+    /**
+     * The lookups of every item of the catalog.
+     */
+    @State(Scope.Benchmark)
+    public static class Lookups extends Catalog {
+        List<Supplier<Item>> lookups;
+
+        @Setup(Level.Trial)
+        public void collect() {
+            lookups = getAllLookups();
+        }
+    }
+
+    /**
+     * The shipped catalog, linked, and the characters and weapons whose icons are requested.
+     */
+    @State(Scope.Benchmark)
+    public static class Icons {
+        List<Item> items;
+
+        @Setup(Level.Trial)
+        public void install() throws IOException {
+            IconAtlas.packingEnabled = false;
+            installCatalog(readShippedJson());
+            ToolData.linkCatalog();
+            items = new ArrayList<>(ToolData.characters);
+            items.addAll(ToolData.weapons);
+        }
+
+        @TearDown(Level.Trial)
+        public void clear() {
+            IconCache.clear();
+        }
+    }
+
+    /**
+     * Icons requested with an empty cache.
+     */
+    @State(Scope.Benchmark)
+    public static class UncachedIcons extends Icons {
+        @Setup(Level.Invocation)
+        public void clearCache() {
+            IconCache.clear();
+        }
+    }
+
+    @Benchmark
+    public void parseDataJsonFiles(EmptyCatalog catalog) {
+        ToolData.parseDataJsonFiles(catalog.executor).join();
+    }
+
+    @Benchmark
+    public Set<Character> characterAdapter(Catalog catalog) throws IOException {
+        return new CharacterAdapter().read(reader(catalog.json, ToolData.DATA_CATEGORY.CHARACTER));
+    }
+
+    @Benchmark
+    public Set<Domain> domainAdapter(Catalog catalog) throws IOException {
+        return new DomainAdapter().read(reader(catalog.json, ToolData.DATA_CATEGORY.DOMAIN));
+    }
+
+    @Benchmark
+    public List<Weapon> weaponAdapter(Catalog catalog) throws IOException {
+        return new WeaponAdapter().read(reader(catalog.json, ToolData.DATA_CATEGORY.WEAPON));
+    }
+
+    @Benchmark
+    public void linkCatalog(UnlinkedCatalog catalog) {
+        ToolData.linkCatalog();
+    }
+
+    @Benchmark
+    public void getX(Lookups catalog, Blackhole blackhole) {
+        for (Supplier<Item> lookup : catalog.lookups) {
+            blackhole.consume(lookup.get());
+        }
+    }
+
+    @Benchmark
+    public void getIconUncached(UncachedIcons icons, Blackhole blackhole) {
+        for (Item item : icons.items) {
+            blackhole.consume(item.getIcon());
+        }
+    }
+
+    @Benchmark
+    public void getIconCached(Icons icons, Blackhole blackhole) {
+        for (Item item : icons.items) {
+            blackhole.consume(item.getIcon());
+        }
+    }
+
+    private static Map<ToolData.DATA_CATEGORY, String> readShippedJson() throws IOException {
+        Map<ToolData.DATA_CATEGORY, String> shippedJson = new EnumMap<>(ToolData.DATA_CATEGORY.class);
+        for (ToolData.DATA_CATEGORY dataCategory : ToolData.DATA_CATEGORY.values()) {
+            URL url = ToolData.class.getResource(dataCategory.datapath);
+            assert url != null;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                shippedJson.put(dataCategory, reader.lines().collect(Collectors.joining("\n")));
+            }
+        }
+        return shippedJson;
+    }
+
+    private static JsonReader reader(Map<ToolData.DATA_CATEGORY, String> json, ToolData.DATA_CATEGORY dataCategory) {
+        return new JsonReader(new StringReader(json.get(dataCategory)));
+    }
+
+    /**
+     * Enlarges the catalog by copying every entry. The first copy keeps the original names, the others get their
+     * number appended to every name and every reference to a material.
+     *
+     * @param shippedJson the shipped json files
+     * @param scale number of copies
+     * @return the enlarged json files
+     */
+    private static Map<ToolData.DATA_CATEGORY, String> enlarge(Map<ToolData.DATA_CATEGORY, String> shippedJson,
+                                                               int scale) {
+        Map<ToolData.DATA_CATEGORY, String> enlarged = new EnumMap<>(ToolData.DATA_CATEGORY.class);
+        for (Map.Entry<ToolData.DATA_CATEGORY, String> json : shippedJson.entrySet()) {
+            JsonArray original = JsonParser.parseString(json.getValue()).getAsJsonArray();
+            JsonArray copies = new JsonArray();
+            for (int copy = 0; copy < scale; copy++) {
+                String suffix = copy == 0 ? "" : " " + copy;
+                for (JsonElement element : original) {
+                    JsonObject entry = element.getAsJsonObject().deepCopy();
+                    appendSuffix(entry, suffix, "name", "talentMaterial", "weeklyTalentMaterial", "ascensionMaterial");
+                    if (entry.has("materials")) {
+                        for (JsonElement material : entry.getAsJsonArray("materials")) {
+                            appendSuffix(material.getAsJsonObject(), suffix, "name");
+                        }
+                    }
+                    copies.add(entry);
+                }
+            }
+            enlarged.put(json.getKey(), copies.toString());
+        }
+        return enlarged;
+    }
+
+    private static void appendSuffix(JsonObject entry, String suffix, String... fields) {
+        for (String field : fields) {
+            if (entry.has(field)) {
+                entry.addProperty(field, entry.get(field).getAsString() + suffix);
+            }
+        }
+    }
+
+    private static void clearCatalog() {
+        ToolData.characters.clear();
+        ToolData.weapons.clear();
+        ToolData.domains.clear();
+        ToolData.artifacts.clear();
+        ToolData.weaponMaterials.clear();
+        ToolData.talentMaterials.clear();
+        ToolData.weeklyTalentMaterials.clear();
+    }
+
+    /**
+     * Replaces the catalog with the one parsed from the given json files, without linking it.
+     *
+     * @param json the json files
+     * @throws IOException if a json file cannot be parsed
+     */
+    private static void installCatalog(Map<ToolData.DATA_CATEGORY, String> json) throws IOException {
+        clearCatalog();
+        ToolData.characters.addAll(new CharacterAdapter().read(reader(json, ToolData.DATA_CATEGORY.CHARACTER)));
+        ToolData.weapons.addAll(new WeaponAdapter().read(reader(json, ToolData.DATA_CATEGORY.WEAPON)));
+        ToolData.domains.addAll(new DomainAdapter().read(reader(json, ToolData.DATA_CATEGORY.DOMAIN)));
+        ToolData.registerMaterials();
+        ToolData.buildNameIndices();
+        ToolData.assignIds();
+    }
+
+    /**
+     * Returns a lookup of every item in the catalog through its getX method. The names are in upper case to include
+     * the case-insensitive matching.
+     *
+     * @return all lookups
+     */
+    private static List<Supplier<Item>> getAllLookups() {
+        List<Supplier<Item>> lookups = new ArrayList<>();
+        addLookups(lookups, ToolData.characters, ToolData::getCharacter);
+        addLookups(lookups, ToolData.weapons, ToolData::getWeapon);
+        addLookups(lookups, ToolData.artifacts, ToolData::getArtifact);
+        addLookups(lookups, ToolData.weaponMaterials, ToolData::getWeaponMaterial);
+        addLookups(lookups, ToolData.talentMaterials, ToolData::getTalentBook);
+        addLookups(lookups, ToolData.weeklyTalentMaterials, ToolData::getWeeklyTalentMaterial);
+        return lookups;
+    }
+
+    private static void addLookups(List<Supplier<Item>> lookups, Collection<? extends Item> items,
+                                   Function<String, ? extends Item> getter) {
+        for (Item item : items) {
+            String name = item.name.toUpperCase(Locale.ROOT);
+            lookups.add(() -> getter.apply(name));
+        }
+    }
+}
@@ -1,10 +1,9 @@
 package Files.Code.Auxiliary;
 
 import static Files.Code.Data.ToolData.getWeapon;
+import static Files.Code.Data.ToolData.isWeaponName;
 import static Files.Code.GUIs.ToolGUI.isSomeoneFarmingForTheWeapon;
 
-import Files.Code.Data.Weapon;
-
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JList;
@@ -51,14 +50,9 @@ public class ComboBoxRenderer extends JLabel implements ListCellRenderer<JLabel>
                 jlabel.setIcon(null);
             }
             jlabel.setText(value.getText());
-            try {
-                Weapon weapon = getWeapon(value.getText());
-                if (isSomeoneFarmingForTheWeapon(weapon)) {
-                    jlabel.setForeground(_selectedColor);
-                } else {
-                    jlabel.setForeground(Color.BLACK);
-                }
-            } catch (IllegalArgumentException e) {
+            if (isWeaponName(value.getText()) && isSomeoneFarmingForTheWeapon(getWeapon(value.getText()))) {
+                jlabel.setForeground(_selectedColor);
+            } else {
                 jlabel.setForeground(Color.BLACK);
             }
         }
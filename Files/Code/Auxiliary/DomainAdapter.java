@@ -12,7 +12,6 @@ import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -29,12 +28,12 @@ public class DomainAdapter extends TypeAdapter<Set<Domain>> {
     @Override
     public Set<Domain> read(JsonReader jsonReader) throws IOException {
         jsonReader.beginArray();
-        String name = "";
-        String type = "";
-        Set<? extends FarmableItem> materials = new TreeSet<>(ToolData.comparator);
-        boolean rotates = false;
         Set<Domain> domains = new TreeSet<>(ToolData.comparator);
         while (jsonReader.hasNext()) {
+            String name = "";
+            String type = null;
+            Set<? extends FarmableItem> materials = new TreeSet<>(ToolData.comparator);
+            boolean rotates = false;
             jsonReader.beginObject();
             while (jsonReader.hasNext()) {
                 String fieldName = jsonReader.nextName();
@@ -51,7 +50,7 @@ public class DomainAdapter extends TypeAdapter<Set<Domain>> {
                 }
             }
             jsonReader.endObject();
-            domains.add(new Domain(name, type, materials, rotates));
+            domains.add(new Domain(name, ToolData.DOMAIN_TYPE.fromString(type), materials, rotates));
         }
         jsonReader.endArray();
 
@@ -61,12 +60,12 @@ public class DomainAdapter extends TypeAdapter<Set<Domain>> {
     private Set<? extends FarmableItem> getMaterials(JsonReader jsonReader) throws IOException {
         Set<FarmableItem> materials = new TreeSet<>(ToolData.comparator);
         jsonReader.beginArray();
-        String name = "";
-        String type = "";
-        String availability = "";
-        String descr_2p = "";
-        String descr_4p = "";
         while (jsonReader.hasNext()) {
+            String name = "";
+            String type = null;
+            String availability = "";
+            String descr_2p = "";
+            String descr_4p = "";
             jsonReader.beginObject();
             while (jsonReader.hasNext()) {
                 String fieldName = jsonReader.nextName();
@@ -85,14 +84,19 @@ public class DomainAdapter extends TypeAdapter<Set<Domain>> {
                 }
             }
             jsonReader.endObject();
-            if (type.equalsIgnoreCase("artifact")) {
-                materials.add(new Artifact(name, descr_2p, descr_4p));
-            } else if (type.equalsIgnoreCase("Weapon Material")) {
-                materials.add(new WeaponMaterial(name, availability, new ArrayList<>()));
-            } else if (type.equalsIgnoreCase("Talent Book")) {
-                materials.add(new TalentMaterial(name, availability, new ArrayList<>()));
-            } else if (type.equalsIgnoreCase("Weekly Boss Material")) {
-                materials.add(new WeeklyTalentMaterial(name, availability, new ArrayList<>()));
+            switch (ToolData.DOMAIN_TYPE.fromString(type)) {
+                case ARTIFACT:
+                    materials.add(new Artifact(name, descr_2p, descr_4p));
+                    break;
+                case WEAPON_MATERIAL:
+                    materials.add(new WeaponMaterial(name, availability));
+                    break;
+                case TALENT_BOOK:
+                    materials.add(new TalentMaterial(name, availability));
+                    break;
+                case WEEKLY_BOSS_MATERIAL:
+                    materials.add(new WeeklyTalentMaterial(name, availability));
+                    break;
             }
         }
         jsonReader.endArray();
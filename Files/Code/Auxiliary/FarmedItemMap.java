@@ -0,0 +1,132 @@
+package Files.Code.Auxiliary;
+
+import Files.Code.Data.Character;
+import Files.Code.Data.Item;
+import Files.Code.Data.ToolData;
+
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Mapping of the items of one category to the characters farming them. The characters of every item are stored as a
+ * bit set of their ids, indexed by the id of the item (see Item.getId), so lookups, unions and counts work on whole
+ * words instead of comparing names.
+ *
+ * @param <T> the category of the items
+ */
+public final class FarmedItemMap<T extends Item> {
+    private BitSet[] farmingCharacters = new BitSet[0];
+
+    /**
+     * Removes all characters and sizes the map for the items of the category. Must be called once the ids have been
+     * assigned.
+     *
+     * @param itemCount number of items in the category
+     */
+    public void reset(int itemCount) {
+        farmingCharacters = new BitSet[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            farmingCharacters[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Marks a character as farming the item, or as not farming it.
+     *
+     * @param item      the item
+     * @param character the character
+     * @param status    true if the character farms the item
+     */
+    public void update(T item, Character character, boolean status) {
+        farmingCharacters[item.getId()].set(character.getId(), status);
+    }
+
+    /**
+     * Returns whether any character farms the item.
+     *
+     * @param item the item
+     * @return true if at least one character farms it
+     */
+    public boolean isFarmed(T item) {
+        return !farmingCharacters[item.getId()].isEmpty();
+    }
+
+    /**
+     * Returns whether a character farms the item.
+     *
+     * @param item      the item
+     * @param character the character
+     * @return true if the character farms it
+     */
+    public boolean isFarmedBy(T item, Character character) {
+        return farmingCharacters[item.getId()].get(character.getId());
+    }
+
+    /**
+     * Returns how many characters farm the item.
+     *
+     * @param item the item
+     * @return number of characters
+     */
+    public int countFarming(T item) {
+        return farmingCharacters[item.getId()].cardinality();
+    }
+
+    /**
+     * Returns the ids of the characters farming the item.
+     *
+     * @param item the item
+     * @return the ids, in ascending order
+     */
+    public int[] getFarmingIds(T item) {
+        return farmingCharacters[item.getId()].stream().toArray();
+    }
+
+    /**
+     * Adds the ids of all items farmed by at least one character to a bit set.
+     *
+     * @param itemIds receives the ids
+     */
+    public void collectFarmedItems(BitSet itemIds) {
+        for (int id = 0; id < farmingCharacters.length; id++) {
+            if (!farmingCharacters[id].isEmpty()) {
+                itemIds.set(id);
+            }
+        }
+    }
+
+    /**
+     * Adds the ids of the characters farming the item to a bit set.
+     *
+     * @param item         the item
+     * @param characterIds receives the ids
+     */
+    public void collectFarming(T item, BitSet characterIds) {
+        characterIds.or(farmingCharacters[item.getId()]);
+    }
+
+    /**
+     * Returns the characters farming the item.
+     *
+     * @param item the item
+     * @return the characters, ordered by name
+     */
+    public Set<Character> getFarming(T item) {
+        return toCharacters(farmingCharacters[item.getId()]);
+    }
+
+    /**
+     * Resolves a bit set of character ids.
+     *
+     * @param characterIds the ids
+     * @return the characters, ordered by name
+     */
+    public static Set<Character> toCharacters(BitSet characterIds) {
+        Set<Character> characters = new LinkedHashSet<>();
+        for (int id = characterIds.nextSetBit(0); id >= 0; id = characterIds.nextSetBit(id + 1)) {
+            characters.add(ToolData.getCharacter(id));
+        }
+        return characters;
+    }
+}
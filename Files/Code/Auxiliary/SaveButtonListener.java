@@ -1,20 +1,17 @@
 package Files.Code.Auxiliary;
 
-import static Files.Code.Data.ToolData.SAVE_LOCATION;
-
 import Files.Code.Data.CharacterListing;
-import com.google.gson.Gson;
+import Files.Code.Data.ProfileSaveQueue;
+import Files.Code.Data.ProfileStore;
 
 import javax.swing.JButton;
 import javax.swing.Timer;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
 
 /**
- * This class implements the save button listener, found in CharacterCardGUI.
+ * This class implements the save button listener, found in CharacterCardGUI. The card is written in the background
+ * by ProfileSaveQueue; the button shows the result once it has been written.
  *
  * @link CharacterCardGUI
  */
@@ -35,27 +32,19 @@ public class SaveButtonListener implements ActionListener {
 
         JButton saveButton = (JButton) e.getSource();
         saveButton.setEnabled(false);
-        Gson gson = new Gson();
-        File f = new File(SAVE_LOCATION + _characterListing.getCharacterName());
         JButton triggerButton = (JButton) e.getSource();
-        try {
-            f.createNewFile();
-            FileWriter fd = new FileWriter(f);
-            gson.toJson(_characterListing, fd);
-            fd.flush();
-            fd.close();
-            Timer timer = new Timer(0, event -> triggerButton.setText("SUCCESS"));
-            timer.setRepeats(false);
-            timer.start();
-        } catch (IOException ex) {
-            System.out.println(
-                    "Failed to save character details for character " + _characterListing.getCharacterName());
-            Timer timer = new Timer(0, event -> triggerButton.setText("FAIL"));
+        ProfileStore.putCharacterListing(_characterListing);
+        ProfileSaveQueue.requestSave(status -> {
+            if (status == ProfileSaveQueue.SAVE_STATUS.SAVED) {
+                triggerButton.setText("SUCCESS");
+            } else {
+                System.out.println(
+                        "Failed to save character details for character " + _characterListing.getCharacterName());
+                triggerButton.setText("FAIL");
+            }
+            Timer timer = new Timer(1000, event -> triggerButton.setText("SAVE"));
             timer.setRepeats(false);
             timer.start();
-        }
-        Timer timer = new Timer(1000, event -> triggerButton.setText("SAVE"));
-        timer.setRepeats(false);
-        timer.start();
+        });
     }
 }
@@ -1,10 +1,5 @@
 package Files.Code.Auxiliary;
 
-import static Files.Code.Data.ToolData.getArtifact;
-import static Files.Code.Data.ToolData.getCharacter;
-import static Files.Code.Data.ToolData.getTalentBook;
-import static Files.Code.Data.ToolData.getWeapon;
-import static Files.Code.Data.ToolData.getWeeklyTalentMaterial;
 import static Files.Code.GUIs.ToolGUI.updateFarmedItemMap;
 
 import Files.Code.Data.CharacterListing;
@@ -45,24 +40,24 @@ public class UpdateCharacterCardCheckBoxListener implements ItemListener {
             case FARMING_SET_ONE:
                 _characterListing.setArtifactSet1Status(currentStatus);
                 updateFarmedItemMap(ToolData.CHARACTER_CARD_DATA_FIELD.SET_ONE, _characterListing, currentStatus,
-                        getArtifact(_characterListing.getArtifactSet1()));
+                        _characterListing.getEquippedArtifactSet1());
                 return;
             case FARMING_SET_TWO:
                 _characterListing.setArtifactSet2Status(currentStatus);
                 updateFarmedItemMap(ToolData.CHARACTER_CARD_DATA_FIELD.SET_TWO, _characterListing, currentStatus,
-                        getArtifact(_characterListing.getArtifactSet2()));
+                        _characterListing.getEquippedArtifactSet2());
                 return;
             case FARMING_TALENT_MATERIALS:
                 _characterListing.setTalentStatus(currentStatus);
                 updateFarmedItemMap(_changedData, _characterListing, currentStatus,
-                        getTalentBook(getCharacter(_characterListing.getCharacterName()).talentMaterial));
-                updateFarmedItemMap(_changedData, _characterListing, currentStatus, getWeeklyTalentMaterial(
-                        getCharacter(_characterListing.getCharacterName()).weeklyTalentMaterial));
+                        _characterListing.getCharacter().getTalentBook());
+                updateFarmedItemMap(_changedData, _characterListing, currentStatus,
+                        _characterListing.getCharacter().getWeeklyTalentMaterial());
                 return;
             case FARMING_WEAPON_MATERIALS:
                 _characterListing.setWeaponStatus(currentStatus);
                 updateFarmedItemMap(_changedData, _characterListing, currentStatus,
-                        getWeapon(_characterListing.getWeapon()));
+                        _characterListing.getEquippedWeapon());
                 return;
             default:
         }
@@ -63,12 +63,12 @@ public class UpdateCharacterCardComboBoxListener implements ItemListener {
                 case SET_ONE:
                     _characterListing.setArtifactSet1(item);
                     updateFarmedItemMap(_changedData, _characterListing, _characterListing.getArtifactSet1Status(),
-                            getArtifact(item));
+                            _characterListing.getEquippedArtifactSet1());
                     return;
                 case SET_TWO:
                     _characterListing.setArtifactSet2(item);
                     updateFarmedItemMap(_changedData, _characterListing, _characterListing.getArtifactSet2Status(),
-                            getArtifact(item));
+                            _characterListing.getEquippedArtifactSet2());
                     return;
                 default:
             }
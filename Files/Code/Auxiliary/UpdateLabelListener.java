@@ -63,9 +63,9 @@ public class UpdateLabelListener implements ActionListener {
             _NameLabel.setText(item);
             _checkBox.setEnabled(true);
             if (SELECTION_BOX_TYPE == ToolData.RESOURCE_TYPE.WEAPON_NAME) {
-                icon = getWeapon(item).icon;
+                icon = getWeapon(item).getIcon();
             } else {
-                icon = getArtifact(item).icon;
+                icon = getArtifact(item).getIcon();
             }
         }
         _JLabel.setIcon(icon);
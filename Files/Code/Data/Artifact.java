@@ -26,4 +26,9 @@ public class Artifact extends FarmableItem {
         description_2piece = descr_2p;
         description_4piece = descr_4p;
     }
+
+    @Override
+    public ToolData.RESOURCE_TYPE getResourceType() {
+        return ToolData.RESOURCE_TYPE.ARTIFACT;
+    }
 }
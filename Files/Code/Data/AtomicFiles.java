@@ -0,0 +1,106 @@
+package Files.Code.Data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class replaces files atomically: the new content is written to a temporary file next to the target, forced to
+ * the disk and then renamed over the target. A crash at any point leaves either the old or the new file, never a
+ * partially written one.
+ */
+final class AtomicFiles {
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private static final String BACKUP_EXTENSION = ".bak";
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * Writes the content of a file.
+     */
+    interface ContentWriter {
+        /**
+         * Writes the content into the stream. The stream must not be closed.
+         *
+         * @param out the stream
+         * @throws IOException if the content cannot be written
+         */
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Replaces the target file with the written content.
+     *
+     * @param target the file to replace
+     * @param contentWriter writes the new content
+     * @throws IOException if the file cannot be written, the target is left untouched in that case
+     */
+    static void write(Path target, ContentWriter contentWriter) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = target.resolveSibling(target.getFileName() + TEMPORARY_EXTENSION);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            contentWriter.write(out);
+            out.flush();
+            channel.force(true);
+        }
+        move(temporary, target);
+        forceDirectory(directory);
+    }
+
+    /**
+     * Replaces the target file with the written content, keeping the previous content as a backup. The backup is
+     * replaced atomically as well, so there is always a complete copy of the target.
+     *
+     * @param target the file to replace
+     * @param contentWriter writes the new content
+     * @throws IOException if the file cannot be written, the target is left untouched in that case
+     */
+    static void writeWithBackup(Path target, ContentWriter contentWriter) throws IOException {
+        if (Files.exists(target)) {
+            write(getBackupPath(target), out -> Files.copy(target, out));
+        }
+        write(target, contentWriter);
+    }
+
+    /**
+     * Returns the path of the backup of the target file.
+     *
+     * @param target the file
+     * @return path of its backup
+     */
+    static Path getBackupPath(Path target) {
+        return target.resolveSibling(target.getFileName() + BACKUP_EXTENSION);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Forces the directory entry of the renamed file to the disk. Not every platform supports opening directories
+     * (i.e. Windows), where this is skipped.
+     *
+     * @param directory the directory
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // The rename itself is atomic, only its durability is not guaranteed here.
+        }
+    }
+}
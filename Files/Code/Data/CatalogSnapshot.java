@@ -0,0 +1,293 @@
+package Files.Code.Data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * This class reads and writes the binary catalog snapshot: all characters, weapons and domains parsed from the json
+ * files. The links between the items are not stored, the catalog is linked after it has been read. The snapshot is
+ * regenerated whenever one of the json files changes.
+ * <p>
+ * Layout: header (magic, version, fingerprint of the json files), string table, characters, weapons, domains.
+ * All strings are stored once in the string table and referenced by their index. Domain types are stored as the
+ * ordinal of their DOMAIN_TYPE, so changing the order of that enum requires a new VERSION.
+ */
+final class CatalogSnapshot {
+    private static final int MAGIC = 0x47444331;
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 4 + 4 + ToolData.DATA_CATEGORY.values().length * 16;
+
+    private static final byte ARTIFACT = 0;
+    private static final byte WEAPON_MATERIAL = 1;
+    private static final byte TALENT_MATERIAL = 2;
+    private static final byte WEEKLY_TALENT_MATERIAL = 3;
+    /*
+     * Smallest number of bytes taken by an entry of each list, used to check the lengths read from the snapshot.
+     */
+    private static final int STRING_SIZE = 4;
+    private static final int CHARACTER_SIZE = 5 * 4;
+    private static final int WEAPON_SIZE = 4 * 4;
+    private static final int DOMAIN_SIZE = 4 + 1 + 1 + 4;
+    private static final int MATERIAL_SIZE = 1 + 2 * 4;
+
+    private CatalogSnapshot() {
+    }
+
+    /**
+     * Computes the fingerprint of the json files: their sizes and modification times.
+     *
+     * @return the fingerprint, two values per data category
+     * @throws IOException if a json file cannot be accessed
+     */
+    static long[] fingerprint() throws IOException {
+        ToolData.DATA_CATEGORY[] categories = ToolData.DATA_CATEGORY.values();
+        long[] fingerprint = new long[categories.length * 2];
+        for (int i = 0; i < categories.length; i++) {
+            URL url = ToolData.class.getResource(categories[i].datapath);
+            assert url != null;
+            long[] stamp = ToolData.getResourceStamp(url);
+            fingerprint[2 * i] = stamp[0];
+            fingerprint[2 * i + 1] = stamp[1];
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Reads the snapshot into the given collections. Nothing is added unless the whole snapshot could be read.
+     *
+     * @param snapshot the snapshot file
+     * @param fingerprint the current fingerprint of the json files
+     * @param characters collection that receives all characters
+     * @param weapons collection that receives all weapons
+     * @param domains collection that receives all domains
+     * @return true if the snapshot was read, false if it is missing, stale or corrupt
+     */
+    static boolean read(Path snapshot, long[] fingerprint, Collection<Character> characters,
+                        Collection<Weapon> weapons, Collection<Domain> domains) {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header);
+            header.flip();
+            if (!isCurrent(header, fingerprint)) {
+                return false;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.position(HEADER_SIZE);
+
+            String[] strings = new String[readLength(buffer, STRING_SIZE)];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[readLength(buffer, 1)];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            List<Character> readCharacters = new ArrayList<>();
+            for (int i = readLength(buffer, CHARACTER_SIZE); i > 0; i--) {
+                readCharacters.add(new Character(strings[buffer.getInt()], strings[buffer.getInt()],
+                        strings[buffer.getInt()], strings[buffer.getInt()], strings[buffer.getInt()]));
+            }
+            List<Weapon> readWeapons = new ArrayList<>();
+            for (int i = readLength(buffer, WEAPON_SIZE); i > 0; i--) {
+                readWeapons.add(new Weapon(strings[buffer.getInt()], strings[buffer.getInt()],
+                        strings[buffer.getInt()], strings[buffer.getInt()]));
+            }
+            List<Domain> readDomains = new ArrayList<>();
+            for (int i = readLength(buffer, DOMAIN_SIZE); i > 0; i--) {
+                String name = strings[buffer.getInt()];
+                ToolData.DOMAIN_TYPE type = ToolData.DOMAIN_TYPE.values()[buffer.get()];
+                boolean rotates = buffer.get() != 0;
+                Set<FarmableItem> materials = new TreeSet<>(ToolData.comparator);
+                for (int j = readLength(buffer, MATERIAL_SIZE); j > 0; j--) {
+                    materials.add(readMaterial(buffer, strings));
+                }
+                readDomains.add(new Domain(name, type, materials, rotates));
+            }
+
+            characters.addAll(readCharacters);
+            weapons.addAll(readWeapons);
+            domains.addAll(readDomains);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            System.out.println("The catalog snapshot is corrupt and will be regenerated.");
+            return false;
+        }
+    }
+
+    /**
+     * Reads the length of a list (or of a string in bytes) and checks that the rest of the snapshot can hold it, so
+     * a corrupt length is neither negative nor allocated.
+     *
+     * @param buffer the snapshot
+     * @param entrySize smallest number of bytes taken by an entry
+     * @return the length
+     * @throws IOException if the length is negative or longer than the rest of the snapshot
+     */
+    private static int readLength(ByteBuffer buffer, int entrySize) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining() / entrySize) {
+            throw new IOException("The catalog snapshot is corrupt.");
+        }
+        return length;
+    }
+
+    private static boolean isCurrent(ByteBuffer header, long[] fingerprint) {
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            return false;
+        }
+        for (long value : fingerprint) {
+            if (header.getLong() != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static FarmableItem readMaterial(ByteBuffer buffer, String[] strings) {
+        byte kind = buffer.get();
+        String name = strings[buffer.getInt()];
+        if (kind == ARTIFACT) {
+            return new Artifact(name, strings[buffer.getInt()], strings[buffer.getInt()]);
+        }
+        String availability = strings[buffer.getInt()];
+        switch (kind) {
+            case WEAPON_MATERIAL:
+                return new WeaponMaterial(name, availability);
+            case TALENT_MATERIAL:
+                return new TalentMaterial(name, availability);
+            case WEEKLY_TALENT_MATERIAL:
+                return new WeeklyTalentMaterial(name, availability);
+            default:
+                throw new IllegalArgumentException("Unknown material kind " + kind);
+        }
+    }
+
+    /**
+     * Writes the snapshot of the given catalog. The file is replaced atomically.
+     *
+     * @param snapshot the snapshot file
+     * @param fingerprint the fingerprint of the json files the catalog was parsed from
+     * @param characters all characters
+     * @param weapons all weapons
+     * @param domains all domains
+     * @throws IOException if the snapshot cannot be written
+     */
+    static void write(Path snapshot, long[] fingerprint, Collection<Character> characters,
+                      Collection<Weapon> weapons, Collection<Domain> domains) throws IOException {
+        StringTable strings = new StringTable();
+        for (Character character : characters) {
+            strings.add(character.name, character.element, character.weaponType, character.talentMaterial,
+                    character.weeklyTalentMaterial);
+        }
+        for (Weapon weapon : weapons) {
+            strings.add(weapon.name, weapon.rarity, weapon.weaponType, weapon.ascensionMaterial);
+        }
+        for (Domain domain : domains) {
+            strings.add(domain.name);
+            for (FarmableItem material : domain.materials) {
+                strings.add(material.name, material.availability);
+                if (material instanceof Artifact) {
+                    strings.add(((Artifact) material).description_2piece, ((Artifact) material).description_4piece);
+                }
+            }
+        }
+
+        AtomicFiles.write(snapshot, stream -> {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (long value : fingerprint) {
+                out.writeLong(value);
+            }
+            out.writeInt(strings.values.size());
+            for (String value : strings.values) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+
+            out.writeInt(characters.size());
+            for (Character character : characters) {
+                strings.write(out, character.name, character.element, character.weaponType, character.talentMaterial,
+                        character.weeklyTalentMaterial);
+            }
+            out.writeInt(weapons.size());
+            for (Weapon weapon : weapons) {
+                strings.write(out, weapon.name, weapon.rarity, weapon.weaponType, weapon.ascensionMaterial);
+            }
+            out.writeInt(domains.size());
+            for (Domain domain : domains) {
+                strings.write(out, domain.name);
+                out.writeByte(domain.type.ordinal());
+                out.writeByte(domain.rotates ? 1 : 0);
+                out.writeInt(domain.materials.size());
+                for (FarmableItem material : domain.materials) {
+                    writeMaterial(out, strings, material);
+                }
+            }
+            out.flush();
+        });
+    }
+
+    private static void writeMaterial(DataOutputStream out, StringTable strings, FarmableItem material)
+            throws IOException {
+        if (material instanceof Artifact) {
+            Artifact artifact = (Artifact) material;
+            out.writeByte(ARTIFACT);
+            strings.write(out, artifact.name, artifact.description_2piece, artifact.description_4piece);
+            return;
+        }
+        if (material instanceof WeaponMaterial) {
+            out.writeByte(WEAPON_MATERIAL);
+        } else if (material instanceof TalentMaterial) {
+            out.writeByte(TALENT_MATERIAL);
+        } else if (material instanceof WeeklyTalentMaterial) {
+            out.writeByte(WEEKLY_TALENT_MATERIAL);
+        } else {
+            throw new IllegalArgumentException("This item " + material.name + " is of an illegal data type");
+        }
+        strings.write(out, material.name, material.availability);
+    }
+
+    /**
+     * Table of distinct strings, in the order they were first added.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> indices = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        void add(String... strings) {
+            for (String string : strings) {
+                if (!indices.containsKey(string)) {
+                    indices.put(string, values.size());
+                    values.add(string);
+                }
+            }
+        }
+
+        void write(DataOutputStream out, String... strings) throws IOException {
+            for (String string : strings) {
+                out.writeInt(indices.get(string));
+            }
+        }
+    }
+}
@@ -20,6 +20,8 @@ public class Character extends Item {
      * Weekly talent material used by character.
      */
     public final String weeklyTalentMaterial;
+    private TalentMaterial talentBook;
+    private WeeklyTalentMaterial weeklyBossMaterial;
 
     /**
      * Constructor of Character class.
@@ -39,7 +41,41 @@ public class Character extends Item {
         weeklyTalentMaterial = charWeeklyTalentMaterial;
     }
 
+    /**
+     * Returns the talent material used by the character. Resolved when the catalog is linked.
+     *
+     * @return talent material
+     */
+    public TalentMaterial getTalentBook() {
+        return talentBook;
+    }
+
+    /**
+     * Returns the weekly talent material used by the character. Resolved when the catalog is linked.
+     *
+     * @return weekly talent material
+     */
+    public WeeklyTalentMaterial getWeeklyTalentMaterial() {
+        return weeklyBossMaterial;
+    }
+
+    /**
+     * Links the character to the materials it uses.
+     *
+     * @param talentBook the talent material named by talentMaterial
+     * @param weeklyBossMaterial the weekly talent material named by weeklyTalentMaterial
+     */
+    void link(TalentMaterial talentBook, WeeklyTalentMaterial weeklyBossMaterial) {
+        this.talentBook = talentBook;
+        this.weeklyBossMaterial = weeklyBossMaterial;
+    }
+
     public void printInfo() {
         System.out.println(name + " " + element + " " + weaponType + " " + talentMaterial + " " + weeklyTalentMaterial);
     }
+
+    @Override
+    public ToolData.RESOURCE_TYPE getResourceType() {
+        return ToolData.RESOURCE_TYPE.CHARACTER;
+    }
 }
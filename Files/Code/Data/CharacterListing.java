@@ -18,6 +18,13 @@ public class CharacterListing {
     private String artifactSet2;
     private boolean artifactSet2Status;
     private boolean talentStatus;
+    /*
+     * Items named by the fields above, resolved on first access. They are transient, so they are never saved.
+     */
+    private transient Character character;
+    private transient Weapon weaponItem;
+    private transient Artifact artifactSet1Item;
+    private transient Artifact artifactSet2Item;
 
     /**
      * Constructor of the CharacterCard class.
@@ -47,6 +54,19 @@ public class CharacterListing {
         return characterName;
     }
 
+    /**
+     * Returns the character of the card.
+     *
+     * @return character
+     * @throws IllegalArgumentException if the character is not in the catalog
+     */
+    public Character getCharacter() {
+        if (character == null) {
+            character = ToolData.getCharacter(characterName);
+        }
+        return character;
+    }
+
     /**
      * Returns the character notes (String value, up to 150 characters)
      *
@@ -75,6 +95,19 @@ public class CharacterListing {
         return weapon;
     }
 
+    /**
+     * Returns the weapon assigned.
+     *
+     * @return weapon, or null if none is assigned
+     * @throws IllegalArgumentException if the weapon is not in the catalog
+     */
+    public Weapon getEquippedWeapon() {
+        if (weaponItem == null && !weapon.isEmpty()) {
+            weaponItem = ToolData.getWeapon(weapon);
+        }
+        return weaponItem;
+    }
+
     /**
      * Sets the weapon name.
      *
@@ -86,6 +119,7 @@ public class CharacterListing {
         } else {
             this.weapon = weapon;
         }
+        weaponItem = null;
 
     }
 
@@ -116,6 +150,19 @@ public class CharacterListing {
         return artifactSet1;
     }
 
+    /**
+     * Returns the equipped artifact set 1.
+     *
+     * @return artifact set 1, or null if none is equipped
+     * @throws IllegalArgumentException if the artifact set is not in the catalog
+     */
+    public Artifact getEquippedArtifactSet1() {
+        if (artifactSet1Item == null && !artifactSet1.isEmpty()) {
+            artifactSet1Item = ToolData.getArtifact(artifactSet1);
+        }
+        return artifactSet1Item;
+    }
+
     /**
      * Sets the artifact set 1 to the one provided
      *
@@ -127,6 +174,7 @@ public class CharacterListing {
         } else {
             this.artifactSet1 = artifactSet1;
         }
+        artifactSet1Item = null;
     }
 
     /**
@@ -156,6 +204,19 @@ public class CharacterListing {
         return artifactSet2;
     }
 
+    /**
+     * Returns the equipped artifact set 2.
+     *
+     * @return artifact set 2, or null if none is equipped
+     * @throws IllegalArgumentException if the artifact set is not in the catalog
+     */
+    public Artifact getEquippedArtifactSet2() {
+        if (artifactSet2Item == null && !artifactSet2.isEmpty()) {
+            artifactSet2Item = ToolData.getArtifact(artifactSet2);
+        }
+        return artifactSet2Item;
+    }
+
     /**
      * Sets the artifact set 1 to the one provided
      *
@@ -167,6 +228,7 @@ public class CharacterListing {
         } else {
             this.artifactSet2 = artifactSet2;
         }
+        artifactSet2Item = null;
     }
 
     /**
@@ -0,0 +1,214 @@
+package Files.Code.Data;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class encodes character cards and weapon names in a compact binary form, used for the profile snapshot.
+ * <p>
+ * The encoding starts with its version and a dictionary of all item names used in it (characters, weapons and
+ * artifact sets). Every reference to an item is then stored as its id, the index in the dictionary. The ids are
+ * assigned per encoding, so saved profiles stay valid when items are added to the catalog or reordered. Each card
+ * consists of the id of the character, its statuses packed into the bits of one byte, the ids of the weapon and the
+ * artifact sets (0 if none, id + 1 otherwise) and the length-prefixed UTF-8 notes. All numbers are stored as
+ * variable-length integers, most of them take a single byte.
+ */
+final class CharacterListingCodec {
+    private static final int VERSION = 1;
+    private static final int WEAPON_STATUS_BIT = 1;
+    private static final int ARTIFACT_SET_1_STATUS_BIT = 1 << 1;
+    private static final int ARTIFACT_SET_2_STATUS_BIT = 1 << 2;
+    private static final int TALENT_STATUS_BIT = 1 << 3;
+    /**
+     * Id of an empty item reference (no weapon or artifact set equipped).
+     */
+    private static final int NO_ITEM = 0;
+    /**
+     * Largest length of a name or notes in bytes. Longer lengths can only come from a corrupt profile, they are
+     * rejected before anything is allocated for them.
+     */
+    private static final int MAX_STRING_LENGTH = 1 << 16;
+    /**
+     * Largest number of names in the dictionary, far more than there are items in the catalog.
+     */
+    private static final int MAX_DICTIONARY_SIZE = 1 << 20;
+
+    private CharacterListingCodec() {
+    }
+
+    /**
+     * Encodes the character cards and the weapon names.
+     *
+     * @param out receives the encoding
+     * @param listings the character cards
+     * @param weapons the weapon names
+     * @throws IOException if the encoding cannot be written
+     */
+    static void write(DataOutput out, Collection<CharacterListing> listings, Collection<String> weapons)
+            throws IOException {
+        Map<String, Integer> ids = new TreeMap<>();
+        List<String> dictionary = new ArrayList<>();
+        for (CharacterListing listing : listings) {
+            addToDictionary(listing.getCharacterName(), ids, dictionary);
+            addToDictionary(listing.getWeapon(), ids, dictionary);
+            addToDictionary(listing.getArtifactSet1(), ids, dictionary);
+            addToDictionary(listing.getArtifactSet2(), ids, dictionary);
+        }
+        for (String weapon : weapons) {
+            addToDictionary(weapon, ids, dictionary);
+        }
+
+        writeVarInt(out, VERSION);
+        writeVarInt(out, dictionary.size());
+        for (String name : dictionary) {
+            writeString(out, name);
+        }
+        writeVarInt(out, listings.size());
+        for (CharacterListing listing : listings) {
+            writeVarInt(out, ids.get(listing.getCharacterName()));
+            int statuses = 0;
+            if (listing.getWeaponStatus()) {
+                statuses |= WEAPON_STATUS_BIT;
+            }
+            if (listing.getArtifactSet1Status()) {
+                statuses |= ARTIFACT_SET_1_STATUS_BIT;
+            }
+            if (listing.getArtifactSet2Status()) {
+                statuses |= ARTIFACT_SET_2_STATUS_BIT;
+            }
+            if (listing.getTalentStatus()) {
+                statuses |= TALENT_STATUS_BIT;
+            }
+            out.writeByte(statuses);
+            writeItemReference(out, listing.getWeapon(), ids);
+            writeItemReference(out, listing.getArtifactSet1(), ids);
+            writeItemReference(out, listing.getArtifactSet2(), ids);
+            writeString(out, listing.getCharacterNotes());
+        }
+        writeVarInt(out, weapons.size());
+        for (String weapon : weapons) {
+            writeVarInt(out, ids.get(weapon));
+        }
+    }
+
+    /**
+     * Decodes character cards and weapon names.
+     *
+     * @param in the encoding
+     * @param listings receives the character cards
+     * @param weapons receives the weapon names
+     * @throws IOException if the encoding cannot be read, is corrupt or has a newer version
+     */
+    static void read(DataInput in, List<CharacterListing> listings, List<String> weapons) throws IOException {
+        int version = readVarInt(in);
+        if (version > VERSION) {
+            throw new IOException("The profile was saved by a newer version of the application.");
+        }
+        String[] dictionary = new String[readLength(in, MAX_DICTIONARY_SIZE)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(in);
+        }
+        int listingCount = readVarInt(in);
+        for (int i = 0; i < listingCount; i++) {
+            CharacterListing listing = new CharacterListing(lookUp(dictionary, readVarInt(in)));
+            int statuses = in.readUnsignedByte();
+            listing.setWeapon(readItemReference(in, dictionary));
+            listing.setArtifactSet1(readItemReference(in, dictionary));
+            listing.setArtifactSet2(readItemReference(in, dictionary));
+            listing.setCharacterNotes(readString(in));
+            listing.setWeaponStatus((statuses & WEAPON_STATUS_BIT) != 0);
+            listing.setArtifactSet1Status((statuses & ARTIFACT_SET_1_STATUS_BIT) != 0);
+            listing.setArtifactSet2Status((statuses & ARTIFACT_SET_2_STATUS_BIT) != 0);
+            listing.setTalentStatus((statuses & TALENT_STATUS_BIT) != 0);
+            listings.add(listing);
+        }
+        int weaponCount = readVarInt(in);
+        for (int i = 0; i < weaponCount; i++) {
+            weapons.add(lookUp(dictionary, readVarInt(in)));
+        }
+    }
+
+    private static void addToDictionary(String name, Map<String, Integer> ids, List<String> dictionary) {
+        if (!name.isEmpty() && !ids.containsKey(name)) {
+            ids.put(name, dictionary.size());
+            dictionary.add(name);
+        }
+    }
+
+    private static void writeItemReference(DataOutput out, String name, Map<String, Integer> ids) throws IOException {
+        writeVarInt(out, name.isEmpty() ? NO_ITEM : ids.get(name) + 1);
+    }
+
+    private static String readItemReference(DataInput in, String[] dictionary) throws IOException {
+        int reference = readVarInt(in);
+        return reference == NO_ITEM ? "" : lookUp(dictionary, reference - 1);
+    }
+
+    private static String lookUp(String[] dictionary, int id) throws IOException {
+        if (id < 0 || id >= dictionary.length) {
+            throw new IOException("The profile is corrupt.");
+        }
+        return dictionary[id];
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_LENGTH) {
+            throw new IOException("The text \"" + value.substring(0, 20) + "...\" is too long to be saved.");
+        }
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readLength(in, MAX_STRING_LENGTH)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readLength(DataInput in, int maxLength) throws IOException {
+        int length = readVarInt(in);
+        if (length > maxLength) {
+            throw new IOException("The profile is corrupt.");
+        }
+        return length;
+    }
+
+    /**
+     * Writes a non-negative integer in 7-bit groups, the lowest first. The highest bit of every byte tells whether
+     * another byte follows.
+     *
+     * @param out receives the integer
+     * @param value the integer
+     * @throws IOException if the integer cannot be written
+     */
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int part = in.readUnsignedByte();
+            value |= (part & 0x7F) << shift;
+            if ((part & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IOException("The profile is corrupt.");
+    }
+}
@@ -1,7 +1,5 @@
 package Files.Code.Data;
 
-import Files.Code.GUIs.DomainTabGUI;
-
 import java.util.Set;
 
 /**
@@ -11,7 +9,7 @@ public class Domain extends Item {
     /**
      * Type of domain.
      */
-    public final String type;
+    public final ToolData.DOMAIN_TYPE type;
     /**
      * Materials obtainable from the domain
      */
@@ -29,7 +27,8 @@ public class Domain extends Item {
      * @param domainMaterials materials obtainable in the domain
      * @param rotates whether the domain rotates (yields different materials based on the day of the week)
      */
-    public Domain(String domainName, String type, Set<? extends FarmableItem> domainMaterials, boolean rotates) {
+    public Domain(String domainName, ToolData.DOMAIN_TYPE type, Set<? extends FarmableItem> domainMaterials,
+                  boolean rotates) {
         super(domainName);
         this.type = type;
         materials = domainMaterials;
@@ -38,7 +37,7 @@ public class Domain extends Item {
 
     @Override
     public void printInfo() {
-        System.out.println(name + " " + type + " " + rotates);
+        System.out.println(name + " " + type.stringToken + " " + rotates);
         for (FarmableItem item : materials) {
             item.printInfo();
         }
@@ -50,7 +49,7 @@ public class Domain extends Item {
      * @return true if it is, otherwise false
      */
     public boolean isArtifactDomain() {
-        return type.equalsIgnoreCase(DomainTabGUI.DOMAIN_FILTER_OPTIONS.ARTIFACT.stringToken);
+        return type == ToolData.DOMAIN_TYPE.ARTIFACT;
     }
 
     /**
@@ -59,7 +58,7 @@ public class Domain extends Item {
      * @return true if it is, otherwise false
      */
     public boolean isTalentMaterialDomain() {
-        return type.equalsIgnoreCase(DomainTabGUI.DOMAIN_FILTER_OPTIONS.TALENT.stringToken);
+        return type == ToolData.DOMAIN_TYPE.TALENT_BOOK;
     }
 
     /**
@@ -68,7 +67,7 @@ public class Domain extends Item {
      * @return true if it is, otherwise false
      */
     public boolean isWeeklyTalentMaterialDomain() {
-        return type.equalsIgnoreCase(DomainTabGUI.DOMAIN_FILTER_OPTIONS.WEEKLY.stringToken);
+        return type == ToolData.DOMAIN_TYPE.WEEKLY_BOSS_MATERIAL;
     }
 
     /**
@@ -77,6 +76,6 @@ public class Domain extends Item {
      * @return true if it is, otherwise false
      */
     public boolean isWeaponMaterialDomain() {
-        return type.equalsIgnoreCase(DomainTabGUI.DOMAIN_FILTER_OPTIONS.WEAPON_MAT.stringToken);
+        return type == ToolData.DOMAIN_TYPE.WEAPON_MATERIAL;
     }
 }
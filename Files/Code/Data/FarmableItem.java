@@ -1,23 +1,111 @@
 package Files.Code.Data;
 
+import javax.swing.ImageIcon;
+import java.time.DayOfWeek;
+import java.util.Locale;
+
 /**
  * This class represents all materials obtainable from domains.
  */
 public abstract class FarmableItem extends Item {
+    /**
+     * Mask of all days of the week (see dayBit).
+     */
+    public static final int ALL_DAYS = (1 << DayOfWeek.values().length) - 1;
+    private static final String ALL_DAYS_TOKEN = "All";
+    private static final String DAY_SEPARATOR = "/";
+
     /**
      * Availability of the material (i.e. on what days it is obtainable from the corresponding domain). Note that all materials are assumed to be available on Sundays.
      */
     public final String availability;
+    /**
+     * Days on which the material is obtainable, as a mask of dayBit values. Sunday is always included.
+     */
+    public final int availableDays;
 
     /**
      * Constructor of Farmable Item. Note this is an abstract class and all inheritors must use this constructor.
      * @param farmableItemName item name
      * @param availability item availability
+     * @throws IllegalArgumentException if the availability names an unknown day
      */
 
     public FarmableItem(String farmableItemName, String availability) {
         super(farmableItemName);
         this.availability = availability;
+        availableDays = parseAvailability(availability);
+    }
+
+    /**
+     * Returns the bit of a day in the masks of available days.
+     *
+     * @param day the day
+     * @return the bit
+     */
+    public static int dayBit(DayOfWeek day) {
+        return 1 << day.ordinal();
+    }
+
+    /**
+     * Returns whether the material is obtainable on a day.
+     *
+     * @param day the day
+     * @return true if it is, otherwise false
+     */
+    public boolean isAvailableOn(DayOfWeek day) {
+        return (availableDays & dayBit(day)) != 0;
+    }
+
+    /**
+     * Returns whether the material is obtainable on any of several days.
+     *
+     * @param days mask of dayBit values
+     * @return true if it is, otherwise false
+     */
+    public boolean isAvailableOnAny(int days) {
+        return (availableDays & days) != 0;
+    }
+
+    /**
+     * Converts an availability such as "Mon/Thu" or "All" into a mask of dayBit values.
+     *
+     * @param availability the availability
+     * @return the mask, including Sunday
+     * @throws IllegalArgumentException if the availability names an unknown day
+     */
+    static int parseAvailability(String availability) {
+        if (availability.equalsIgnoreCase(ALL_DAYS_TOKEN)) {
+            return ALL_DAYS;
+        }
+        int days = dayBit(DayOfWeek.SUNDAY);
+        for (String token : availability.split(DAY_SEPARATOR)) {
+            days |= dayBit(parseDay(token.trim()));
+        }
+        return days;
+    }
+
+    private static DayOfWeek parseDay(String token) {
+        // Days are abbreviated to at least three letters, e.g. Mon or Tues.
+        String prefix = token.toUpperCase(Locale.ENGLISH);
+        if (prefix.length() >= 3) {
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (day.name().startsWith(prefix)) {
+                    return day;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown day: " + token);
+    }
+
+    /**
+     * Returns the disabled (grayed out) icon of the material, shown on days it is not obtainable. The icon is built
+     * on first access and cached in IconCache.
+     *
+     * @return the disabled icon
+     */
+    public ImageIcon getDisabledIcon() {
+        return IconCache.getDisabledIcon(this);
     }
 
     @Override
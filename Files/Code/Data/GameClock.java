@@ -0,0 +1,108 @@
+package Files.Code.Data;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class tells the current day of the game. The day of the game does not change at midnight, but at the daily
+ * reset of the server, which happens at 4 AM in the time zone of the server.
+ * <p>
+ * The server is chosen by its stringToken in the system property gdapp.server. Without it, the reset is assumed to
+ * happen at 4 AM local time.
+ */
+public final class GameClock {
+    /**
+     * Hour of the daily reset, in the time zone of the server.
+     */
+    public static final int RESET_HOUR = 4;
+    static final String SERVER_PROPERTY = "gdapp.server";
+
+    private GameClock() {
+    }
+
+    /**
+     * Enum containing the servers of the game with the time zones of their daily resets.
+     */
+    public enum SERVER {
+        /**
+         * America server
+         */
+        AMERICA("america", "UTC-05:00"),
+        /**
+         * Europe server
+         */
+        EUROPE("europe", "UTC+01:00"),
+        /**
+         * Asia server
+         */
+        ASIA("asia", "UTC+08:00"),
+        /**
+         * TW, HK, MO server
+         */
+        TW_HK_MO("tw_hk_mo", "UTC+08:00");
+        /**
+         * The string token for the respective enum value.
+         */
+        public final String stringToken;
+        /**
+         * Time zone of the daily reset.
+         */
+        public final ZoneId zone;
+        /**
+         * Map that stores all values in the form (string -> enum)
+         */
+        public static final Map<String, SERVER> byString = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        static {
+            for (SERVER server : SERVER.values()) {
+                byString.put(server.stringToken, server);
+            }
+        }
+
+        SERVER(String stringToken, String zone) {
+            this.stringToken = stringToken;
+            this.zone = ZoneId.of(zone);
+        }
+    }
+
+    /**
+     * Returns the current day of the game.
+     *
+     * @return day of the week since the last daily reset
+     */
+    public static DayOfWeek getGameDay() {
+        return getGameDay(Clock.system(getResetZone()));
+    }
+
+    /**
+     * Returns the day of the game at the time of a clock.
+     *
+     * @param clock clock in the time zone of the server
+     * @return day of the week since the last daily reset
+     */
+    public static DayOfWeek getGameDay(Clock clock) {
+        return LocalDateTime.now(clock).minusHours(RESET_HOUR).getDayOfWeek();
+    }
+
+    /**
+     * Returns the time zone of the daily reset, i.e. that of the server set in gdapp.server, or the local time zone.
+     *
+     * @return the time zone
+     */
+    public static ZoneId getResetZone() {
+        String serverName = System.getProperty(SERVER_PROPERTY);
+        if (serverName == null) {
+            return ZoneId.systemDefault();
+        }
+        SERVER server = SERVER.byString.get(serverName.trim());
+        if (server == null) {
+            System.out.println("Unknown server " + serverName + ", the daily reset is assumed to happen in local time.");
+            return ZoneId.systemDefault();
+        }
+        return server.zone;
+    }
+}
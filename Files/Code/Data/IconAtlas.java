@@ -0,0 +1,356 @@
+package Files.Code.Data;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class packs the icons of every resource type into a single image (atlas) and serves the icons as sub-images
+ * of it, so every category is decoded only once instead of once per icon.
+ * <p>
+ * The atlases are kept in the cache folder next to the catalog snapshot (Cache/Atlas/stringToken.atlas). An atlas
+ * file holds the fingerprint of the icon folder it was packed from and its index, one entry per icon with its name and
+ * its bounds, followed by the packed image as png. The fingerprint is checked once, when the atlas is loaded, so the
+ * icons are served from it without touching their files. A category without a current atlas is read from the icon
+ * files and packed in the background, so the atlas is used from the next start on. An icon missing from the atlas is
+ * read from its own file, and its atlas is packed again (at most once per run).
+ */
+final class IconAtlas {
+    private static final String ATLAS_FOLDER_NAME = "Atlas";
+    private static final String ATLAS_EXTENSION = ".atlas";
+    /**
+     * First bytes of an atlas file ("GDAT").
+     */
+    private static final int MAGIC = 0x47444154;
+    private static final int VERSION = 2;
+    /**
+     * Width of the generated atlases. The icons are placed in rows (shelves) no wider than this.
+     */
+    private static final int ATLAS_WIDTH = 2048;
+
+    /**
+     * Loaded atlases. Atlases are kept through soft references, as every icon cut out of them keeps them in memory.
+     */
+    private static final Map<ToolData.RESOURCE_TYPE, SoftReference<Atlas>> atlases =
+            new EnumMap<>(ToolData.RESOURCE_TYPE.class);
+    /**
+     * Categories whose atlas has been packed (or is being packed) in this run.
+     */
+    private static final Set<ToolData.RESOURCE_TYPE> packedAtlases = EnumSet.noneOf(ToolData.RESOURCE_TYPE.class);
+    /**
+     * Placeholder for categories that have no atlas, so the lookup is not repeated for every icon.
+     */
+    private static final Atlas MISSING = new Atlas(null, new HashMap<>());
+    /**
+     * Whether missing or stale atlases are packed. The benchmarks turn packing off, so the cache folder is not written
+     * while they are measured.
+     */
+    static volatile boolean packingEnabled = true;
+    private static final ExecutorService packer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "GDApp icon atlas packer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private IconAtlas() {
+    }
+
+    /**
+     * Returns the icon of the item from the atlas of its category. The atlas is packed again if it does not hold the
+     * icon.
+     *
+     * @param resourceType category of the icon
+     * @param item the item
+     * @return the icon, or null if there is no current atlas for the category or it does not hold the icon
+     */
+    static BufferedImage getImage(ToolData.RESOURCE_TYPE resourceType, Item item) {
+        Atlas atlas = getAtlas(resourceType);
+        Entry entry = atlas.index.get(item.name.toLowerCase(Locale.ROOT));
+        if (entry == null) {
+            schedulePacking(resourceType);
+            return null;
+        }
+        Rectangle bounds = entry.bounds;
+        return atlas.image.getSubimage(bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+    private static synchronized Atlas getAtlas(ToolData.RESOURCE_TYPE resourceType) {
+        SoftReference<Atlas> cached = atlases.get(resourceType);
+        Atlas atlas = cached == null ? null : cached.get();
+        if (atlas == null) {
+            atlas = readAtlas(resourceType);
+            atlases.put(resourceType, new SoftReference<>(atlas));
+        }
+        return atlas;
+    }
+
+    private static Path getAtlasPath(ToolData.RESOURCE_TYPE resourceType) {
+        return Paths.get(ToolData.CACHE_LOCATION, ATLAS_FOLDER_NAME, resourceType.stringToken + ATLAS_EXTENSION);
+    }
+
+    private static Atlas readAtlas(ToolData.RESOURCE_TYPE resourceType) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(getAtlasPath(resourceType))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return MISSING;
+            }
+            long[] fingerprint = fingerprint(resourceType);
+            for (long value : fingerprint) {
+                if (in.readLong() != value) {
+                    return MISSING;
+                }
+            }
+            Map<String, Entry> index = new HashMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                String name = in.readUTF();
+                Rectangle bounds = new Rectangle(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+                index.put(name.toLowerCase(Locale.ROOT), new Entry(bounds));
+            }
+            BufferedImage image = ImageIO.read(in);
+            if (image == null) {
+                return MISSING;
+            }
+            return new Atlas(image, index);
+        } catch (NoSuchFileException e) {
+            return MISSING;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("The " + resourceType.stringToken +
+                    " atlas could not be read, it will be packed again.");
+            return MISSING;
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the icon folder of the category. Icons read from a jar are fingerprinted by the size
+     * and modification time of the jar, icons read from a folder by the number, total size and latest modification
+     * time of its files.
+     *
+     * @param resourceType the category
+     * @return the fingerprint, three values
+     * @throws IOException if the icon folder cannot be found or read
+     */
+    static long[] fingerprint(ToolData.RESOURCE_TYPE resourceType) throws IOException {
+        String folderName = getIconFolder(resourceType);
+        URL folder = ToolData.class.getResource(folderName);
+        if (folder == null) {
+            throw new NoSuchFileException(folderName);
+        }
+        if ("file".equals(folder.getProtocol())) {
+            long[] fingerprint = new long[3];
+            try {
+                Files.walkFileTree(Paths.get(folder.toURI()), new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                        fingerprint[0]++;
+                        fingerprint[1] += attributes.size();
+                        fingerprint[2] = Math.max(fingerprint[2], attributes.lastModifiedTime().toMillis());
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+            return fingerprint;
+        }
+        URLConnection connection = folder.openConnection();
+        // Only the url of the jar is taken, the jar itself is not opened.
+        URL source = connection instanceof JarURLConnection ? ((JarURLConnection) connection).getJarFileURL() : folder;
+        long[] stamp = ToolData.getResourceStamp(source);
+        return new long[]{-1, stamp[0], stamp[1]};
+    }
+
+    private static String getIconFolder(ToolData.RESOURCE_TYPE resourceType) {
+        switch (resourceType) {
+            case WEAPON_NAME:
+                return "/Files/Images/Weapons";
+            case CHARACTER:
+                return "/Files/Images/Characters";
+            case ARTIFACT:
+                return "/Files/Images/Artifact";
+            default:
+                return "/Files/Images/" + resourceType.stringToken;
+        }
+    }
+
+    /**
+     * Packs the atlas of the category in the background, unless it has already been packed in this run or packing is
+     * turned off.
+     *
+     * @param resourceType the category
+     */
+    private static void schedulePacking(ToolData.RESOURCE_TYPE resourceType) {
+        if (!packingEnabled) {
+            return;
+        }
+        synchronized (packedAtlases) {
+            if (!packedAtlases.add(resourceType)) {
+                return;
+            }
+        }
+        packer.execute(() -> {
+            try {
+                int count = pack(resourceType);
+                synchronized (IconAtlas.class) {
+                    atlases.remove(resourceType);
+                }
+                System.out.println("Packed " + count + " icons into the " + resourceType.stringToken + " atlas.");
+            } catch (IOException | RuntimeException e) {
+                System.out.println("The " + resourceType.stringToken + " atlas could not be packed: " +
+                        e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Packs the icons of all items of the category into its atlas. The icons are sorted by height and placed in rows
+     * from left to right. The atlas file is replaced atomically.
+     *
+     * @param resourceType the category
+     * @return number of packed icons
+     * @throws IOException if the atlas cannot be written
+     */
+    private static int pack(ToolData.RESOURCE_TYPE resourceType) throws IOException {
+        // The fingerprint is taken first, so an icon changed while the icons are read is packed again next time.
+        long[] fingerprint = fingerprint(resourceType);
+        List<String> names = new ArrayList<>();
+        List<BufferedImage> images = new ArrayList<>();
+        for (Item item : getItems(resourceType)) {
+            URL source = ToolData.generateResourceIconPath(item, resourceType);
+            if (source == null) {
+                continue;
+            }
+            try {
+                BufferedImage image = ImageIO.read(source);
+                if (image != null) {
+                    names.add(item.name);
+                    images.add(image);
+                }
+            } catch (IOException e) {
+                // The icon is read from its own file.
+            }
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < images.size(); i++) {
+            order.add(i);
+        }
+        order.sort((a, b) -> images.get(b).getHeight() - images.get(a).getHeight());
+
+        Rectangle[] bounds = new Rectangle[images.size()];
+        int x = 0;
+        int y = 0;
+        int rowHeight = 0;
+        int width = 1;
+        for (int i : order) {
+            BufferedImage image = images.get(i);
+            if (x > 0 && x + image.getWidth() > ATLAS_WIDTH) {
+                x = 0;
+                y += rowHeight;
+                rowHeight = 0;
+            }
+            bounds[i] = new Rectangle(x, y, image.getWidth(), image.getHeight());
+            x += image.getWidth();
+            rowHeight = Math.max(rowHeight, image.getHeight());
+            width = Math.max(width, x);
+        }
+
+        BufferedImage atlas = new BufferedImage(width, Math.max(1, y + rowHeight), BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < images.size(); i++) {
+            BufferedImage image = images.get(i);
+            // Copy the pixels as they are, drawing would round semi-transparent pixels.
+            atlas.setRGB(bounds[i].x, bounds[i].y, bounds[i].width, bounds[i].height,
+                    image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth()), 0,
+                    image.getWidth());
+        }
+        AtomicFiles.write(getAtlasPath(resourceType), out -> {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            for (long value : fingerprint) {
+                data.writeLong(value);
+            }
+            data.writeInt(images.size());
+            for (int i = 0; i < images.size(); i++) {
+                data.writeUTF(names.get(i));
+                data.writeInt(bounds[i].x);
+                data.writeInt(bounds[i].y);
+                data.writeInt(bounds[i].width);
+                data.writeInt(bounds[i].height);
+            }
+            ImageIO.write(atlas, "png", data);
+            data.flush();
+        });
+        return images.size();
+    }
+
+    private static Collection<? extends Item> getItems(ToolData.RESOURCE_TYPE resourceType) {
+        switch (resourceType) {
+            case WEAPON_NAME:
+                return ToolData.weapons;
+            case ARTIFACT:
+                return ToolData.artifacts;
+            case WEAPON_MATERIAL:
+                return ToolData.weaponMaterials;
+            case CHARACTER:
+                return ToolData.characters;
+            case TALENT_BOOK:
+                return ToolData.talentMaterials;
+            case WEEKLY_BOSS_MATERIAL:
+                return ToolData.weeklyTalentMaterials;
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Bounds of an icon in its atlas.
+     */
+    private static final class Entry {
+        private final Rectangle bounds;
+
+        Entry(Rectangle bounds) {
+            this.bounds = bounds;
+        }
+    }
+
+    /**
+     * A decoded atlas with its entries, by lower-case item name.
+     */
+    private static final class Atlas {
+        private final BufferedImage image;
+        private final Map<String, Entry> index;
+
+        Atlas(BufferedImage image, Map<String, Entry> index) {
+            this.image = image;
+            this.index = index;
+        }
+    }
+}
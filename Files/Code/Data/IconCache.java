@@ -0,0 +1,214 @@
+package Files.Code.Data;
+
+import javax.swing.GrayFilter;
+import javax.swing.ImageIcon;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class caches the icons of all items. An icon is decoded the first time it is requested and kept through a soft
+ * reference, so icons that are not shown anymore can be reclaimed when memory runs low and are decoded again on their
+ * next use. Resized and disabled icons are cached the same way. The entries of reclaimed icons are removed from the
+ * cache the next time it is accessed.
+ */
+public final class IconCache {
+    private static final Map<IconKey, CachedIcon> icons = new ConcurrentHashMap<>();
+    /**
+     * Receives the references of reclaimed icons, so their entries can be removed.
+     */
+    private static final ReferenceQueue<ImageIcon> reclaimedIcons = new ReferenceQueue<>();
+
+    /**
+     * Size of the original, unscaled icons in the cache keys.
+     */
+    private static final int ORIGINAL_SIZE = 0;
+
+    /**
+     * Size of the disabled (grayed out) icons in the cache keys. Disabled icons keep the original size.
+     */
+    private static final int DISABLED_SIZE = -1;
+
+    private IconCache() {
+    }
+
+    /**
+     * Returns the icon of the item, decoding it if it is not cached. The icon is taken from the atlas of its category
+     * if there is one, otherwise it is read from its own file.
+     *
+     * @param item any item with an icon
+     * @return the icon, or null if the item has no icon (i.e. domains)
+     */
+    public static ImageIcon getIcon(Item item) {
+        ToolData.RESOURCE_TYPE resourceType = item.getResourceType();
+        if (resourceType == null) {
+            return null;
+        }
+        IconKey key = new IconKey(resourceType, item.name, ORIGINAL_SIZE);
+        ImageIcon icon = getCached(key);
+        if (icon == null) {
+            BufferedImage image = IconAtlas.getImage(resourceType, item);
+            icon = image == null ? new ImageIcon(ToolData.generateResourceIconPath(item, resourceType))
+                    : new ImageIcon(image);
+            icons.put(key, new CachedIcon(key, icon));
+        }
+        return icon;
+    }
+
+    /**
+     * Returns the icon of the item, resized to a square of the given size. Every size is scaled only once per item.
+     *
+     * @param item any item with an icon
+     * @param size desired size in pixels
+     * @return the resized icon
+     */
+    public static ImageIcon getResizedIcon(Item item, int size) {
+        IconKey key = new IconKey(item.getResourceType(), item.name, size);
+        ImageIcon icon = getCached(key);
+        if (icon == null) {
+            icon = new ImageIcon(scaleImage(getIcon(item).getImage(), size));
+            icons.put(key, new CachedIcon(key, icon));
+        }
+        return icon;
+    }
+
+    /**
+     * Returns the placeholder icon, resized to a square of the given size. Every size is scaled only once.
+     *
+     * @param placeholderKey the key of the placeholder icon
+     * @param size desired size in pixels
+     * @return the resized icon
+     */
+    public static ImageIcon getResizedPlaceholderIcon(String placeholderKey, int size) {
+        IconKey key = new IconKey(null, placeholderKey, size);
+        ImageIcon icon = getCached(key);
+        if (icon == null) {
+            icon = new ImageIcon(scaleImage(ToolData.getPlaceholderIcon(placeholderKey).getImage(), size));
+            icons.put(key, new CachedIcon(key, icon));
+        }
+        return icon;
+    }
+
+    /**
+     * Returns the disabled (grayed out) icon of the item. The gray filter is applied only once per item, so switching
+     * between day filters only swaps the icons.
+     *
+     * @param item any item with an icon
+     * @return the disabled icon
+     */
+    public static ImageIcon getDisabledIcon(Item item) {
+        IconKey key = new IconKey(item.getResourceType(), item.name, DISABLED_SIZE);
+        ImageIcon icon = getCached(key);
+        if (icon == null) {
+            icon = new ImageIcon(GrayFilter.createDisabledImage(getIcon(item).getImage()));
+            icons.put(key, new CachedIcon(key, icon));
+        }
+        return icon;
+    }
+
+    /**
+     * Drops all cached icons, so they are decoded again on their next use.
+     */
+    static void clear() {
+        icons.clear();
+    }
+
+    private static ImageIcon getCached(IconKey key) {
+        Reference<? extends ImageIcon> reclaimed;
+        while ((reclaimed = reclaimedIcons.poll()) != null) {
+            CachedIcon reclaimedIcon = (CachedIcon) reclaimed;
+            // The entry may have been replaced by a newly decoded icon in the meantime.
+            icons.remove(reclaimedIcon.key, reclaimedIcon);
+        }
+        CachedIcon cached = icons.get(key);
+        return cached == null ? null : cached.get();
+    }
+
+    /**
+     * Scales an image to a square of the given size. The image is halved with bilinear interpolation until the next
+     * step would go below the target size, which is much faster than the area averaging filter of
+     * Image.SCALE_SMOOTH and looks almost the same. The result is compatible with the screen, so it can be drawn
+     * without conversion.
+     *
+     * @param image fully loaded image
+     * @param size desired size in pixels
+     * @return the scaled image
+     */
+    public static BufferedImage scaleImage(Image image, int size) {
+        Image current = image;
+        int width = image.getWidth(null);
+        int height = image.getHeight(null);
+        do {
+            width = Math.max(size, width / 2);
+            height = Math.max(size, height / 2);
+            BufferedImage step = createCompatibleImage(width, height);
+            Graphics2D graphics = step.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = step;
+        } while (width != size || height != size);
+        return (BufferedImage) current;
+    }
+
+    private static BufferedImage createCompatibleImage(int width, int height) {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+                .createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    /**
+     * Soft reference to a cached icon, which remembers its key so its entry can be removed once it is reclaimed.
+     */
+    private static final class CachedIcon extends SoftReference<ImageIcon> {
+        private final IconKey key;
+
+        CachedIcon(IconKey key, ImageIcon icon) {
+            super(icon, reclaimedIcons);
+            this.key = key;
+        }
+    }
+
+    /**
+     * Key of a cached icon: the resource type (null for placeholders), the (case-insensitive) item name and the size.
+     */
+    private static final class IconKey {
+        private final ToolData.RESOURCE_TYPE resourceType;
+        private final String name;
+        private final int size;
+
+        IconKey(ToolData.RESOURCE_TYPE resourceType, String name, int size) {
+            this.resourceType = resourceType;
+            this.name = name.toLowerCase(Locale.ROOT);
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof IconKey) {
+                IconKey key = (IconKey) obj;
+                return resourceType == key.resourceType && name.equals(key.name) && size == key.size;
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resourceType, name, size);
+        }
+    }
+}
@@ -11,10 +11,9 @@ public abstract class Item {
      */
     public final String name;
     /**
-     * Icon of the item.
+     * Dense id of the item within its category, i.e. its position in the sorted set of the category.
      */
-    public transient ImageIcon icon;
-
+    private int id = -1;
     /**
      * Constructor of the item class. Note that all inheritors must use this constructor, while the class Item itself is abstract.
      * @param itemName item name
@@ -24,11 +23,43 @@ public abstract class Item {
         name = itemName;
     }
 
+    /**
+     * Returns the dense id of the item, assigned once the catalog is loaded. The ids of a category run from 0 to the
+     * number of its items - 1, so they can index arrays and bit sets.
+     *
+     * @return the id, or -1 if it has not been assigned yet
+     */
+    public int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
+    }
+
     /**
      * Prints information about the item
      */
     public abstract void printInfo();
 
+    /**
+     * Returns the resource type of the item icon.
+     *
+     * @return the resource type, or null if the item has no icon
+     */
+    public ToolData.RESOURCE_TYPE getResourceType() {
+        return null;
+    }
+
+    /**
+     * Returns the icon of the item. The icon is decoded on first access and cached in IconCache.
+     *
+     * @return the icon, or null if the item has no icon
+     */
+    public ImageIcon getIcon() {
+        return IconCache.getIcon(this);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof Item) {
@@ -0,0 +1,396 @@
+package Files.Code.Data;
+
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * This class stores the profile in an embedded, file-based SQL database accessed through JDBC. It follows the
+ * character table of Files/Databases/databaseModel.mwb and adds tables for the saved character cards, the weapons
+ * listed without a character and the farmed links of every card (character -> weapon, character -> artifact set,
+ * character -> talent materials). The links are indexed by item, so ProfileStore can answer which characters farm an
+ * item with a lookup instead of going through all cards.
+ * <p>
+ * The database is used if its JDBC url is given with the system property gdapp.profile.database, the profile is kept
+ * in files otherwise. The embedded H2 database is bundled (e.g. jdbc:h2:./UserData/profile), any other embedded
+ * database works if its driver is on the classpath.
+ * <p>
+ * Every write increments the revision of the profile, so a refresh only reads the profile again if another process
+ * has written it since.
+ */
+final class JdbcProfileStorage implements ProfileStorage {
+    /**
+     * System property with the JDBC url of the database.
+     */
+    static final String DATABASE_URL_PROPERTY = "gdapp.profile.database";
+    private static final int VERSION = 1;
+    /**
+     * Text columns of the listings table, named like the fields of CharacterListing.
+     */
+    private static final String[] TEXT_FIELDS = {"characterNotes", "weapon", "artifactSet1", "artifactSet2"};
+    /**
+     * Flag columns of the listings table, named like the fields of CharacterListing.
+     */
+    private static final String[] FLAG_FIELDS = {"weaponStatus", "artifactSet1Status", "artifactSet2Status",
+            "talentStatus"};
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS profile_info (version INTEGER NOT NULL, revision BIGINT NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS characters (characterID INTEGER PRIMARY KEY, name VARCHAR(64) NOT NULL " +
+                    "UNIQUE, element VARCHAR(16), weaponType VARCHAR(16), talentMaterial VARCHAR(64), " +
+                    "weeklyTalentMaterial VARCHAR(64))",
+            "CREATE INDEX IF NOT EXISTS characters_talent ON characters (talentMaterial)",
+            "CREATE INDEX IF NOT EXISTS characters_weekly_talent ON characters (weeklyTalentMaterial)",
+            "CREATE TABLE IF NOT EXISTS weapons (weaponID INTEGER PRIMARY KEY, name VARCHAR(64) NOT NULL UNIQUE, " +
+                    "weaponType VARCHAR(16), ascensionMaterial VARCHAR(64))",
+            "CREATE INDEX IF NOT EXISTS weapons_material ON weapons (ascensionMaterial)",
+            "CREATE TABLE IF NOT EXISTS listings (characterName VARCHAR(64) PRIMARY KEY, " +
+                    "characterNotes VARCHAR(1024), weapon VARCHAR(64), weaponStatus BOOLEAN, " +
+                    "artifactSet1 VARCHAR(64), artifactSet1Status BOOLEAN, artifactSet2 VARCHAR(64), " +
+                    "artifactSet2Status BOOLEAN, talentStatus BOOLEAN)",
+            "CREATE TABLE IF NOT EXISTS unassigned_weapons (name VARCHAR(64) PRIMARY KEY)",
+            "CREATE TABLE IF NOT EXISTS farmed_weapons (characterName VARCHAR(64) NOT NULL, " +
+                    "weapon VARCHAR(64) NOT NULL, PRIMARY KEY (characterName, weapon))",
+            "CREATE INDEX IF NOT EXISTS farmed_weapons_item ON farmed_weapons (weapon)",
+            "CREATE TABLE IF NOT EXISTS farmed_artifacts (characterName VARCHAR(64) NOT NULL, " +
+                    "artifact VARCHAR(64) NOT NULL, PRIMARY KEY (characterName, artifact))",
+            "CREATE INDEX IF NOT EXISTS farmed_artifacts_item ON farmed_artifacts (artifact)",
+            "CREATE TABLE IF NOT EXISTS farmed_talents (characterName VARCHAR(64) PRIMARY KEY)"
+    };
+    private static final String[] PROFILE_TABLES = {"listings", "unassigned_weapons", "farmed_weapons",
+            "farmed_artifacts", "farmed_talents"};
+
+    private final Connection connection;
+    /**
+     * Revision of the profile when it was last read or written.
+     */
+    private long revision = -1;
+
+    private JdbcProfileStorage(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Opens the database, creates its tables if needed and copies the characters and weapons of the catalog into it.
+     * The catalog has to be parsed at this point.
+     *
+     * @param url JDBC url of the database
+     * @return the storage
+     * @throws IOException if the database cannot be opened
+     */
+    static JdbcProfileStorage open(String url) throws IOException {
+        try {
+            JdbcProfileStorage storage = new JdbcProfileStorage(DriverManager.getConnection(url));
+            storage.createSchema();
+            return storage;
+        } catch (SQLException e) {
+            throw new IOException("The profile database could not be opened: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized boolean exists() {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM profile_info")) {
+            return result.next() && result.getInt(1) > 0;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void read(Map<String, JsonObject> listings, Set<String> weapons) throws IOException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet result = statement.executeQuery("SELECT version, revision FROM profile_info")) {
+                if (result.next()) {
+                    if (result.getInt(1) > VERSION) {
+                        throw new IOException("The profile was saved by a newer version of the application.");
+                    }
+                    revision = result.getLong(2);
+                }
+            }
+            try (ResultSet result = statement.executeQuery("SELECT * FROM listings")) {
+                while (result.next()) {
+                    JsonObject listing = new JsonObject();
+                    String characterName = result.getString(ProfileStore.CHARACTER_NAME_KEY);
+                    listing.addProperty(ProfileStore.CHARACTER_NAME_KEY, characterName);
+                    for (String field : TEXT_FIELDS) {
+                        // Fields that are not set are left out, as in the json of a CharacterListing.
+                        String value = result.getString(field);
+                        if (value != null) {
+                            listing.addProperty(field, value);
+                        }
+                    }
+                    for (String field : FLAG_FIELDS) {
+                        listing.addProperty(field, result.getBoolean(field));
+                    }
+                    listings.put(characterName, listing);
+                }
+            }
+            try (ResultSet result = statement.executeQuery("SELECT name FROM unassigned_weapons")) {
+                while (result.next()) {
+                    weapons.add(result.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("The profile database could not be read.", e);
+        }
+    }
+
+    /**
+     * Reads the profile completely if another process has written it since it was last read or written.
+     */
+    @Override
+    public synchronized List<JsonObject> refresh(Map<String, JsonObject> listings, Set<String> weapons)
+            throws IOException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT revision FROM profile_info")) {
+            if (result.next() && result.getLong(1) == revision) {
+                return Collections.emptyList();
+            }
+        } catch (SQLException e) {
+            throw new IOException("The profile database could not be read.", e);
+        }
+        read(listings, weapons);
+        return null;
+    }
+
+    /**
+     * Writes the rows of the changed character cards and weapons in one transaction.
+     */
+    @Override
+    public synchronized void write(List<JsonObject> changes, Map<String, JsonObject> listings, Set<String> weapons)
+            throws IOException {
+        if (changes.isEmpty()) {
+            return;
+        }
+        inTransaction(() -> {
+            Set<String> changedListings = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            for (JsonObject change : changes) {
+                String weapon = change.has(WEAPON_KEY) ? change.get(WEAPON_KEY).getAsString() : null;
+                switch (PROFILE_CHANGE.byString.get(change.get(OPERATION_KEY).getAsString())) {
+                    case SET_FIELD:
+                        changedListings.add(change.get(CHARACTER_KEY).getAsString());
+                        break;
+                    case LIST_WEAPON:
+                        update("DELETE FROM unassigned_weapons WHERE name = ?", weapon);
+                        update("INSERT INTO unassigned_weapons (name) VALUES (?)", weapon);
+                        break;
+                    case UNLIST_WEAPON:
+                        update("DELETE FROM unassigned_weapons WHERE name = ?", weapon);
+                        break;
+                }
+            }
+            for (String characterName : changedListings) {
+                for (String table : PROFILE_TABLES) {
+                    if (!table.equals("unassigned_weapons")) {
+                        update("DELETE FROM " + table + " WHERE characterName = ?", characterName);
+                    }
+                }
+                insertListing(listings.get(characterName));
+            }
+            incrementRevision();
+        });
+    }
+
+    @Override
+    public synchronized void replace(Map<String, JsonObject> listings, Set<String> weapons) throws IOException {
+        inTransaction(() -> {
+            update("DELETE FROM profile_info");
+            update("INSERT INTO profile_info (version, revision) VALUES (?, ?)", VERSION, Math.max(0, revision));
+            for (String table : PROFILE_TABLES) {
+                update("DELETE FROM " + table);
+            }
+            for (JsonObject listing : listings.values()) {
+                insertListing(listing);
+            }
+            for (String weapon : weapons) {
+                update("INSERT INTO unassigned_weapons (name) VALUES (?)", weapon);
+            }
+            incrementRevision();
+        });
+    }
+
+    /**
+     * Returns the names of the characters whose saved character card farms the item: the weapon or artifact set
+     * with its status checked, the talent materials of the character if the talent status is checked, or the
+     * ascension material of the checked weapon.
+     *
+     * @param item the item
+     * @return character names, ordered by name
+     * @throws IOException if the database cannot be read
+     */
+    synchronized List<String> getFarmingCharacters(Item item) throws IOException {
+        String query;
+        if (item instanceof Weapon) {
+            query = "SELECT characterName FROM farmed_weapons WHERE weapon = ?";
+        } else if (item instanceof Artifact) {
+            query = "SELECT characterName FROM farmed_artifacts WHERE artifact = ?";
+        } else if (item instanceof TalentMaterial) {
+            query = "SELECT f.characterName FROM farmed_talents f JOIN characters c ON c.name = f.characterName " +
+                    "WHERE c.talentMaterial = ?";
+        } else if (item instanceof WeeklyTalentMaterial) {
+            query = "SELECT f.characterName FROM farmed_talents f JOIN characters c ON c.name = f.characterName " +
+                    "WHERE c.weeklyTalentMaterial = ?";
+        } else if (item instanceof WeaponMaterial) {
+            query = "SELECT f.characterName FROM farmed_weapons f JOIN weapons w ON w.name = f.weapon " +
+                    "WHERE w.ascensionMaterial = ?";
+        } else {
+            return new ArrayList<>();
+        }
+        List<String> characterNames = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT DISTINCT characterName FROM (" + query + ") farming ORDER BY characterName")) {
+            statement.setString(1, item.name);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    characterNames.add(result.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("The profile database could not be read.", e);
+        }
+        return characterNames;
+    }
+
+    /**
+     * Creates the tables and replaces the characters and weapons with the ones of the catalog.
+     *
+     * @throws SQLException if the database cannot be written
+     */
+    private void createSchema() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String definition : SCHEMA) {
+                statement.execute(definition);
+            }
+        }
+        connection.setAutoCommit(false);
+        try {
+            update("DELETE FROM characters");
+            int characterID = 0;
+            for (Character character : ToolData.characters) {
+                update("INSERT INTO characters (characterID, name, element, weaponType, talentMaterial, " +
+                                "weeklyTalentMaterial) VALUES (?, ?, ?, ?, ?, ?)", ++characterID, character.name,
+                        character.element, character.weaponType, character.talentMaterial,
+                        character.weeklyTalentMaterial);
+            }
+            update("DELETE FROM weapons");
+            int weaponID = 0;
+            for (Weapon weapon : ToolData.weapons) {
+                update("INSERT INTO weapons (weaponID, name, weaponType, ascensionMaterial) VALUES (?, ?, ?, ?)",
+                        ++weaponID, weapon.name, weapon.weaponType, weapon.ascensionMaterial);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * Increments the revision of the profile in the current transaction.
+     *
+     * @throws SQLException if the revision cannot be written
+     */
+    private void incrementRevision() throws SQLException {
+        update("UPDATE profile_info SET revision = revision + 1");
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT revision FROM profile_info")) {
+            revision = result.next() ? result.getLong(1) : -1;
+        }
+    }
+
+    /**
+     * Inserts the row of a character card and its farmed links.
+     *
+     * @param listing the character card
+     * @throws SQLException if the rows cannot be inserted
+     */
+    private void insertListing(JsonObject listing) throws SQLException {
+        String characterName = listing.get(ProfileStore.CHARACTER_NAME_KEY).getAsString();
+        Object[] values = new Object[1 + TEXT_FIELDS.length + FLAG_FIELDS.length];
+        StringBuilder columns = new StringBuilder(ProfileStore.CHARACTER_NAME_KEY);
+        StringBuilder parameters = new StringBuilder("?");
+        values[0] = characterName;
+        int column = 1;
+        for (String field : TEXT_FIELDS) {
+            columns.append(", ").append(field);
+            parameters.append(", ?");
+            values[column++] = listing.has(field) && !listing.get(field).isJsonNull() ?
+                    listing.get(field).getAsString() : null;
+        }
+        for (String field : FLAG_FIELDS) {
+            columns.append(", ").append(field);
+            parameters.append(", ?");
+            values[column++] = getFlag(listing, field);
+        }
+        update("INSERT INTO listings (" + columns + ") VALUES (" + parameters + ")", values);
+
+        String weapon = getText(listing, "weapon");
+        if (getFlag(listing, "weaponStatus") && !weapon.isEmpty()) {
+            update("INSERT INTO farmed_weapons (characterName, weapon) VALUES (?, ?)", characterName, weapon);
+        }
+        Set<String> artifacts = new TreeSet<>();
+        if (getFlag(listing, "artifactSet1Status") && !getText(listing, "artifactSet1").isEmpty()) {
+            artifacts.add(getText(listing, "artifactSet1"));
+        }
+        if (getFlag(listing, "artifactSet2Status") && !getText(listing, "artifactSet2").isEmpty()) {
+            artifacts.add(getText(listing, "artifactSet2"));
+        }
+        for (String artifact : artifacts) {
+            update("INSERT INTO farmed_artifacts (characterName, artifact) VALUES (?, ?)", characterName, artifact);
+        }
+        if (getFlag(listing, "talentStatus")) {
+            update("INSERT INTO farmed_talents (characterName) VALUES (?)", characterName);
+        }
+    }
+
+    private static String getText(JsonObject listing, String field) {
+        return listing.has(field) && !listing.get(field).isJsonNull() ? listing.get(field).getAsString() : "";
+    }
+
+    private static boolean getFlag(JsonObject listing, String field) {
+        return listing.has(field) && listing.get(field).getAsBoolean();
+    }
+
+    private int update(String sql, Object... parameters) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Statements that are executed in one transaction.
+     */
+    private interface Transaction {
+        void run() throws SQLException;
+    }
+
+    private void inTransaction(Transaction transaction) throws IOException {
+        try {
+            try {
+                transaction.run();
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IOException("The profile database could not be written.", e);
+        }
+    }
+}
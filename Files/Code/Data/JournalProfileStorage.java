@@ -0,0 +1,603 @@
+package Files.Code.Data;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class stores the profile in files: a snapshot, which is read in one pass at startup, and a journal of the
+ * changes made since the snapshot was written. Writing the changes appends their records to the journal, so it costs
+ * a few bytes no matter how big the profile is. Once the journal gets long, it is compacted in the background into a
+ * new snapshot.
+ * <p>
+ * The snapshot and the journal carry a generation number. Compaction writes the snapshot of the next generation
+ * before starting a new journal. The snapshot records how many records of the previous journal it contains, so if the
+ * new journal could not be started (the application was killed in between or the write failed), the changes keep
+ * going to the previous journal and only its records after that count are replayed onto the snapshot. Journals of
+ * any other generation are ignored.
+ * <p>
+ * The storage remembers the size and modification time of both files as it last read or wrote them, and how much of
+ * the journal it has read. A refresh finding the files as they were has nothing to read, so the application's own
+ * writes cost nothing; records appended by another process are read from the remembered position on. Only a changed
+ * snapshot (which means a compaction started a new journal) or a journal that no longer continues the one that was
+ * read causes the profile to be read completely.
+ * <p>
+ * The snapshot is binary: a magic number, the generation and the number of contained records of the previous journal,
+ * followed by the character cards and weapon names as encoded by CharacterListingCodec. Older versions wrote it
+ * without the number of records, or as json (profile.json), which is converted on first load.
+ */
+final class JournalProfileStorage implements ProfileStorage {
+    /**
+     * Name of the profile snapshot in the save location.
+     */
+    static final String PROFILE_FILE_NAME = "profile.bin";
+    /**
+     * Name of the json snapshot written by older versions, which is converted on first load.
+     */
+    static final String JSON_PROFILE_FILE_NAME = "profile.json";
+    /**
+     * Name of the profile journal in the save location.
+     */
+    static final String JOURNAL_FILE_NAME = "profile.journal";
+    private static final int VERSION = 1;
+    /**
+     * First bytes of the snapshot ("GDAQ").
+     */
+    private static final int SNAPSHOT_MAGIC = 0x47444151;
+    /**
+     * First bytes of the snapshot of older versions, which does not record the contained journal records ("GDAP").
+     */
+    private static final int LEGACY_SNAPSHOT_MAGIC = 0x47444150;
+    /**
+     * Number of contained journal records of a snapshot that does not record them.
+     */
+    private static final int UNKNOWN_RECORDS = -1;
+    /**
+     * The journal is compacted once it holds this many records.
+     */
+    private static final int COMPACTION_THRESHOLD = 256;
+    private static final String VERSION_KEY = "version";
+    private static final String GENERATION_KEY = "generation";
+    private static final String CHARACTERS_KEY = "characters";
+    private static final String WEAPONS_KEY = "weapons";
+
+    private static final Gson gson = new Gson();
+    private static final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "GDApp profile compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path profile;
+    private final Path backup;
+    private final Path jsonProfile;
+    private final Path jsonBackup;
+    private final Path journal;
+    /**
+     * Generation of the journal. The snapshot is of the same generation, or of the next one if its compaction did not
+     * start the new journal.
+     */
+    private long generation;
+    /**
+     * Whether changes can be appended to the journal, i.e. it exists, belongs to the profile and is complete.
+     */
+    private boolean journalCurrent;
+    /**
+     * Number of records in the journal.
+     */
+    private int journalRecords;
+    /**
+     * Number of records of the previous journal contained in the snapshot that has been read.
+     */
+    private int snapshotJournalRecords;
+    /**
+     * Lines appended to the journal after the state of a scheduled compaction was copied, or null if no compaction
+     * is scheduled. They are carried over into the new journal.
+     */
+    private List<String> linesSinceCompaction;
+    /**
+     * Length of the journal up to the end of the last record that has been read or written, or -1 if the journal has
+     * to be read completely.
+     */
+    private long journalLength = -1;
+    /**
+     * Size and modification time of the snapshot when it was last read or written, or null if there was none.
+     */
+    private long[] snapshotStamp;
+    /**
+     * Size and modification time of the journal when it was last read or written, or null if there was none.
+     */
+    private long[] journalStamp;
+
+    /**
+     * Creates the storage in the given folder.
+     *
+     * @param saveLocation folder of the files
+     */
+    JournalProfileStorage(Path saveLocation) {
+        profile = saveLocation.resolve(PROFILE_FILE_NAME);
+        backup = AtomicFiles.getBackupPath(profile);
+        jsonProfile = saveLocation.resolve(JSON_PROFILE_FILE_NAME);
+        jsonBackup = AtomicFiles.getBackupPath(jsonProfile);
+        journal = saveLocation.resolve(JOURNAL_FILE_NAME);
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.exists(profile) || Files.exists(backup) || Files.exists(jsonProfile) ||
+                Files.exists(jsonBackup);
+    }
+
+    /**
+     * Reads the snapshot (or its backup if the snapshot is corrupt) and applies the changes in the journal. A json
+     * snapshot of an older version is converted into the binary one and moved to the Legacy folder.
+     */
+    @Override
+    public synchronized void read(Map<String, JsonObject> listings, Set<String> weapons) throws IOException {
+        readFiles(listings, weapons, true);
+    }
+
+    /**
+     * Reads the records appended to the journal since it was last read or written. The profile is read completely if
+     * the snapshot has changed or the journal does not continue the one that was read.
+     */
+    @Override
+    public synchronized List<JsonObject> refresh(Map<String, JsonObject> listings, Set<String> weapons)
+            throws IOException {
+        long[] currentJournalStamp = getStamp(journal);
+        // The snapshot is only replaced together with the journal, by a compaction.
+        if (journalCurrent && journalLength >= 0 && Arrays.equals(snapshotStamp, getStamp(profile))) {
+            if (Arrays.equals(journalStamp, currentJournalStamp)) {
+                // The files have only been written by this storage since they were read.
+                return Collections.emptyList();
+            }
+            List<JsonObject> changes = readJournalTail();
+            if (changes != null) {
+                journalStamp = currentJournalStamp;
+                return changes;
+            }
+        }
+        readFiles(listings, weapons, false);
+        return null;
+    }
+
+    /**
+     * Reads the snapshot and applies the changes in the journal.
+     *
+     * @param listings receives the character cards
+     * @param weapons receives the weapon names
+     * @param repair whether a corrupt snapshot, an incomplete or long journal and a json snapshot are fixed
+     * @throws IOException if the profile cannot be read
+     */
+    private void readFiles(Map<String, JsonObject> listings, Set<String> weapons, boolean repair)
+            throws IOException {
+        generation = 0;
+        journalRecords = 0;
+        snapshotJournalRecords = UNKNOWN_RECORDS;
+        // A scheduled compaction would write the profile as it was before.
+        linesSinceCompaction = null;
+        // The files are stamped before they are read, so changes made while reading them are read by the next refresh.
+        snapshotStamp = getStamp(profile);
+        journalStamp = getStamp(journal);
+        boolean converted = false;
+        if (Files.exists(profile) || Files.exists(backup)) {
+            if (repair) {
+                readWithBackup(profile, backup, this::readSnapshot, listings, weapons);
+            } else {
+                readSnapshot(Files.exists(profile) ? profile : backup, listings, weapons);
+            }
+        } else if (Files.exists(jsonProfile) || Files.exists(jsonBackup)) {
+            if (repair) {
+                readWithBackup(jsonProfile, jsonBackup, this::readJsonSnapshot, listings, weapons);
+            } else {
+                readJsonSnapshot(Files.exists(jsonProfile) ? jsonProfile : jsonBackup, listings, weapons);
+            }
+            converted = true;
+        }
+        journalCurrent = replayJournal(listings, weapons);
+        if (!repair) {
+            return;
+        }
+        if (!journalCurrent || converted || journalRecords >= COMPACTION_THRESHOLD) {
+            compact(listings, weapons, new ArrayList<>());
+        }
+        if (converted) {
+            moveToLegacyFolder(jsonProfile, jsonBackup);
+            System.out.println("Converted " + JSON_PROFILE_FILE_NAME + " into " + PROFILE_FILE_NAME + ".");
+        }
+    }
+
+    /**
+     * Moves all files of the profile to the Legacy folder, once the profile has been moved into another storage.
+     *
+     * @throws IOException if the files cannot be moved
+     */
+    synchronized void moveToLegacyFolder() throws IOException {
+        // A scheduled compaction would write the files again.
+        linesSinceCompaction = null;
+        moveToLegacyFolder(profile, backup, journal, jsonProfile, jsonBackup);
+        journalCurrent = false;
+    }
+
+    private void moveToLegacyFolder(Path... files) throws IOException {
+        Path legacyFolder = Files.createDirectories(profile.resolveSibling(ProfileStore.LEGACY_FOLDER_NAME));
+        for (Path file : files) {
+            if (Files.exists(file)) {
+                Files.move(file, legacyFolder.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Appends the changes to the journal. The journal is compacted in the background once it gets long. If the
+     * journal cannot be appended to, the whole profile is written instead.
+     */
+    @Override
+    public synchronized void write(List<JsonObject> changes, Map<String, JsonObject> listings, Set<String> weapons)
+            throws IOException {
+        if (!journalCurrent || !Files.exists(journal)) {
+            replace(listings, weapons);
+            return;
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        StringBuilder records = new StringBuilder();
+        for (JsonObject change : changes) {
+            String line = gson.toJson(change);
+            lines.add(line);
+            records.append(line).append('\n');
+        }
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long length = channel.size();
+            ByteBuffer buffer = ByteBuffer.wrap(records.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            // Records appended by another process in the meantime have not been read, so the next refresh reads the
+            // whole profile.
+            journalLength = length == journalLength ? channel.size() : -1;
+        }
+        journalStamp = getStamp(journal);
+        journalRecords += changes.size();
+        if (linesSinceCompaction != null) {
+            linesSinceCompaction.addAll(lines);
+        } else if (journalRecords >= COMPACTION_THRESHOLD) {
+            scheduleCompaction(listings, weapons);
+        }
+    }
+
+    /**
+     * Writes the profile as the snapshot of the next generation and starts an empty journal for it.
+     */
+    @Override
+    public synchronized void replace(Map<String, JsonObject> listings, Set<String> weapons) throws IOException {
+        // A scheduled compaction would write an older state.
+        linesSinceCompaction = null;
+        compact(listings, weapons, new ArrayList<>());
+    }
+
+    /**
+     * Copies the profile and compacts the copy in the background. Changes written in the meantime are carried over
+     * into the new journal.
+     *
+     * @param listings the character cards
+     * @param weapons the weapon names
+     */
+    private void scheduleCompaction(Map<String, JsonObject> listings, Set<String> weapons) {
+        Map<String, JsonObject> listingsCopy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, JsonObject> listing : listings.entrySet()) {
+            listingsCopy.put(listing.getKey(), listing.getValue().deepCopy());
+        }
+        Set<String> weaponsCopy = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        weaponsCopy.addAll(weapons);
+        linesSinceCompaction = new ArrayList<>();
+        compactor.execute(() -> {
+            synchronized (this) {
+                if (linesSinceCompaction == null) {
+                    // The profile has been replaced in the meantime.
+                    return;
+                }
+                try {
+                    compact(listingsCopy, weaponsCopy, linesSinceCompaction);
+                } catch (IOException e) {
+                    // The changes since the copy are still in the journal, which keeps growing until a compaction
+                    // succeeds.
+                    System.out.println("Failed to compact the profile, it will be tried again: " + e.getMessage());
+                }
+                linesSinceCompaction = null;
+            }
+        });
+    }
+
+    /**
+     * Writes the snapshot of the next generation, replacing the snapshot atomically and keeping the previous one as
+     * a backup, and then starts the journal of the new generation. The generation only advances once the new journal
+     * has been written; until then the records after the given state are read from the current journal.
+     *
+     * @param listings the character cards
+     * @param weapons the weapon names
+     * @param journalLines records for the new journal, made after the given state; they are the last records of the
+     *                     current journal
+     * @throws IOException if the profile cannot be written
+     */
+    private void compact(Map<String, JsonObject> listings, Set<String> weapons, List<String> journalLines)
+            throws IOException {
+        List<CharacterListing> characterListings = new ArrayList<>();
+        for (JsonObject listing : listings.values()) {
+            characterListings.add(gson.fromJson(listing, CharacterListing.class));
+        }
+        int containedRecords = journalRecords - journalLines.size();
+        AtomicFiles.writeWithBackup(profile, out -> {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+            data.writeInt(SNAPSHOT_MAGIC);
+            data.writeLong(generation + 1);
+            data.writeInt(containedRecords);
+            CharacterListingCodec.write(data, characterListings, weapons);
+            data.flush();
+        });
+        JsonObject header = new JsonObject();
+        header.addProperty(GENERATION_KEY, generation + 1);
+        StringBuilder content = new StringBuilder(gson.toJson(header)).append('\n');
+        for (String line : journalLines) {
+            content.append(line).append('\n');
+        }
+        if (!journalCurrent) {
+            // Nothing of it may be replayed onto the new snapshot if the new journal cannot be written.
+            Files.deleteIfExists(journal);
+        }
+        byte[] bytes = content.toString().getBytes(StandardCharsets.UTF_8);
+        AtomicFiles.write(journal, out -> out.write(bytes));
+        generation++;
+        journalCurrent = true;
+        journalRecords = journalLines.size();
+        journalLength = bytes.length;
+        snapshotStamp = getStamp(profile);
+        journalStamp = getStamp(journal);
+    }
+
+    /**
+     * Reads one of the snapshot files.
+     */
+    private interface SnapshotReader {
+        void read(Path snapshot, Map<String, JsonObject> listings, Set<String> weapons) throws IOException;
+    }
+
+    /**
+     * Reads the snapshot, or its backup if the snapshot is missing or corrupt. A corrupt snapshot is replaced by the
+     * backup, so the next compaction does not copy it over the backup.
+     *
+     * @param snapshot the snapshot
+     * @param snapshotBackup its backup
+     * @param reader reads either file
+     * @param listings receives the character cards
+     * @param weapons receives the weapon names
+     * @throws IOException if neither file can be read
+     */
+    private void readWithBackup(Path snapshot, Path snapshotBackup, SnapshotReader reader,
+                                Map<String, JsonObject> listings, Set<String> weapons) throws IOException {
+        if (!Files.exists(snapshot)) {
+            reader.read(snapshotBackup, listings, weapons);
+            return;
+        }
+        try {
+            reader.read(snapshot, listings, weapons);
+        } catch (IOException e) {
+            if (!Files.exists(snapshotBackup)) {
+                throw e;
+            }
+            System.out.println("The profile could not be read, restoring the backup: " + e.getMessage());
+            listings.clear();
+            weapons.clear();
+            reader.read(snapshotBackup, listings, weapons);
+            AtomicFiles.write(snapshot, out -> Files.copy(snapshotBackup, out));
+        }
+    }
+
+    private void readSnapshot(Path snapshot, Map<String, JsonObject> listings, Set<String> weapons)
+            throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            int magic = in.readInt();
+            if (magic != SNAPSHOT_MAGIC && magic != LEGACY_SNAPSHOT_MAGIC) {
+                throw new IOException("The profile is corrupt.");
+            }
+            generation = in.readLong();
+            snapshotJournalRecords = magic == SNAPSHOT_MAGIC ? in.readInt() : UNKNOWN_RECORDS;
+            List<CharacterListing> characterListings = new ArrayList<>();
+            List<String> weaponNames = new ArrayList<>();
+            CharacterListingCodec.read(in, characterListings, weaponNames);
+            for (CharacterListing listing : characterListings) {
+                listings.put(listing.getCharacterName(), gson.toJsonTree(listing).getAsJsonObject());
+            }
+            weapons.addAll(weaponNames);
+        } catch (EOFException e) {
+            throw new IOException("The profile is corrupt.", e);
+        }
+    }
+
+    /**
+     * Reads a json snapshot written by an older version.
+     *
+     * @param snapshot the snapshot
+     * @param listings receives the character cards
+     * @param weapons receives the weapon names
+     * @throws IOException if the snapshot cannot be read
+     */
+    private void readJsonSnapshot(Path snapshot, Map<String, JsonObject> listings, Set<String> weapons)
+            throws IOException {
+        try (Reader reader = Files.newBufferedReader(snapshot, StandardCharsets.UTF_8)) {
+            JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
+            if (root.get(VERSION_KEY).getAsInt() > VERSION) {
+                throw new IOException("The profile was saved by a newer version of the application.");
+            }
+            generation = root.has(GENERATION_KEY) ? root.get(GENERATION_KEY).getAsLong() : 0;
+            for (JsonElement savedListing : root.getAsJsonArray(CHARACTERS_KEY)) {
+                JsonObject listing = savedListing.getAsJsonObject();
+                listings.put(listing.get(ProfileStore.CHARACTER_NAME_KEY).getAsString(), listing);
+            }
+            for (JsonElement weapon : root.getAsJsonArray(WEAPONS_KEY)) {
+                weapons.add(weapon.getAsString());
+            }
+        } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+            throw new IOException("The profile is corrupt.", e);
+        }
+    }
+
+    /**
+     * Applies the changes in the journal to the snapshot that has been read. If the journal is of the previous
+     * generation, its records contained in the snapshot are skipped and the journal stays in use. A journal of any
+     * other generation is ignored.
+     *
+     * @param listings the character cards of the snapshot
+     * @param weapons the weapon names of the snapshot
+     * @return true if the journal belongs to the snapshot and was read completely, false if it has to be started anew
+     * @throws IOException if the journal cannot be read
+     */
+    private boolean replayJournal(Map<String, JsonObject> listings, Set<String> weapons) throws IOException {
+        journalLength = -1;
+        if (!Files.exists(journal)) {
+            return false;
+        }
+        byte[] content = Files.readAllBytes(journal);
+        if (content.length == 0) {
+            return false;
+        }
+        try {
+            int end = getLineEnd(content, 0);
+            long journalGeneration = parseRecord(content, 0, end).get(GENERATION_KEY).getAsLong();
+            int skippedRecords = 0;
+            if (journalGeneration == generation - 1 && snapshotJournalRecords != UNKNOWN_RECORDS) {
+                // The compaction into the snapshot did not start the new journal.
+                skippedRecords = snapshotJournalRecords;
+                generation = journalGeneration;
+            } else if (journalGeneration != generation) {
+                return false;
+            }
+            int start = end + 1;
+            for (; start < content.length; start = end + 1) {
+                end = getLineEnd(content, start);
+                JsonObject record = parseRecord(content, start, end);
+                if (journalRecords >= skippedRecords) {
+                    ProfileStore.applyChange(record, listings, weapons);
+                }
+                journalRecords++;
+            }
+            journalLength = Math.min(start, content.length);
+            return true;
+        } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+            // Only the last record can be incomplete, if the application was killed while appending it.
+            System.out.println("The profile journal ends with an incomplete change, which is skipped.");
+            return false;
+        }
+    }
+
+    /**
+     * Reads the records appended to the journal since it was last read or written. A last record without its line feed
+     * is still being appended, it is read by the next refresh.
+     *
+     * @return the records, or null if the journal does not continue the one that was read and has to be read
+     *         completely
+     * @throws IOException if the journal cannot be read
+     */
+    private List<JsonObject> readJournalTail() throws IOException {
+        byte[] tail;
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < journalLength || size - journalLength > Integer.MAX_VALUE) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - journalLength));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, journalLength + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            tail = Arrays.copyOf(buffer.array(), buffer.position());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        List<JsonObject> changes = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        int start = 0;
+        try {
+            for (int end = getLineEnd(tail, 0); end < tail.length; end = getLineEnd(tail, start)) {
+                changes.add(parseRecord(tail, start, end));
+                lines.add(new String(tail, start, end - start, StandardCharsets.UTF_8));
+                start = end + 1;
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            return null;
+        }
+        journalLength += start;
+        journalRecords += changes.size();
+        if (linesSinceCompaction != null) {
+            // The records come after the state copied for the scheduled compaction.
+            linesSinceCompaction.addAll(lines);
+        }
+        return changes;
+    }
+
+    /**
+     * Returns the end of the line starting at the given index: the index of its line feed, or the length of the
+     * content if the line is not terminated.
+     */
+    private static int getLineEnd(byte[] content, int start) {
+        int end = start;
+        while (end < content.length && content[end] != '\n') {
+            end++;
+        }
+        return end;
+    }
+
+    private static JsonObject parseRecord(byte[] content, int start, int end) {
+        return JsonParser.parseString(new String(content, start, end - start, StandardCharsets.UTF_8))
+                .getAsJsonObject();
+    }
+
+    /**
+     * Returns the size and modification time of the file.
+     *
+     * @param file the file
+     * @return size and modification time, or null if the file does not exist
+     * @throws IOException if the attributes of the file cannot be read
+     */
+    private static long[] getStamp(Path file) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new long[]{attributes.size(), attributes.lastModifiedTime().toMillis()};
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package Files.Code.Data;
+
+import static Files.Code.GUIs.ToolGUI.CHARACTER_LIMIT;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * This class exports the profile into a zip archive and imports it again, e.g. to move the profile to another
+ * machine. The archive holds one entry per character card (characters/name.json), the unassigned weapons
+ * (weapons.json) and its version (profile-info.json).
+ * <p>
+ * Both directions stream the archive entry by entry. An import validates every entry against the loaded catalog,
+ * skips the invalid ones and merges the rest into the profile: imported cards replace the saved cards of the same
+ * characters, all other cards are kept, and the imported weapons are added to the unassigned weapons.
+ */
+public final class ProfileArchive {
+    /**
+     * Extension of the archives.
+     */
+    public static final String ARCHIVE_EXTENSION = "zip";
+    private static final int VERSION = 1;
+    private static final String INFO_ENTRY = "profile-info.json";
+    private static final String WEAPONS_ENTRY = "weapons.json";
+    private static final String CHARACTERS_FOLDER = "characters/";
+    private static final String ENTRY_EXTENSION = ".json";
+    private static final Gson gson = new Gson();
+
+    private ProfileArchive() {
+    }
+
+    /**
+     * Result of an import.
+     */
+    public static final class ImportSummary {
+        /**
+         * Names of the characters whose card was imported.
+         */
+        public final Set<String> importedListings = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        /**
+         * Number of imported unassigned weapons.
+         */
+        public int importedWeapons;
+        /**
+         * Descriptions of the skipped entries.
+         */
+        public final List<String> skippedEntries = new ArrayList<>();
+    }
+
+    /**
+     * Writes the saved profile into an archive. The archive is replaced atomically.
+     *
+     * @param target the archive
+     * @throws IOException if the archive cannot be written
+     */
+    public static void exportProfile(Path target) throws IOException {
+        AtomicFiles.write(target, out -> {
+            ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+            Writer writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+            JsonObject info = new JsonObject();
+            info.addProperty("version", VERSION);
+            zip.putNextEntry(new ZipEntry(INFO_ENTRY));
+            gson.toJson(info, writer);
+            writer.flush();
+            zip.closeEntry();
+
+            for (String characterName : ProfileStore.getCharacterNames()) {
+                CharacterListing listing = ProfileStore.getCharacterListing(characterName);
+                if (listing == null) {
+                    continue;
+                }
+                zip.putNextEntry(new ZipEntry(CHARACTERS_FOLDER + characterName + ENTRY_EXTENSION));
+                gson.toJson(listing, writer);
+                writer.flush();
+                zip.closeEntry();
+            }
+
+            zip.putNextEntry(new ZipEntry(WEAPONS_ENTRY));
+            JsonWriter jsonWriter = new JsonWriter(writer);
+            jsonWriter.beginArray();
+            for (String weaponName : ProfileStore.getWeaponNames()) {
+                jsonWriter.value(weaponName);
+            }
+            jsonWriter.endArray();
+            jsonWriter.flush();
+            zip.closeEntry();
+            zip.finish();
+        });
+    }
+
+    /**
+     * Merges the profile in an archive into the saved profile and writes it. If the archive is damaged, the entries
+     * read before the damage are kept.
+     *
+     * @param source the archive
+     * @return what has been imported and skipped
+     * @throws IOException if the archive cannot be read before anything was merged, was exported by a newer version
+     *                     or the profile cannot be written
+     */
+    public static ImportSummary importProfile(Path source) throws IOException {
+        ImportSummary summary = new ImportSummary();
+        Set<String> weaponNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(source)),
+                StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String entryName = entry.getName();
+                JsonReader reader = new JsonReader(new InputStreamReader(new UnclosableInputStream(zip),
+                        StandardCharsets.UTF_8));
+                try {
+                    if (entryName.equals(INFO_ENTRY)) {
+                        JsonObject info = JsonParser.parseReader(reader).getAsJsonObject();
+                        if (info.get("version").getAsInt() > VERSION) {
+                            throw new IOException("The archive was exported by a newer version of the application.");
+                        }
+                    } else if (entryName.equals(WEAPONS_ENTRY)) {
+                        readWeapons(reader, weaponNames, summary);
+                    } else if (entryName.startsWith(CHARACTERS_FOLDER) && entryName.endsWith(ENTRY_EXTENSION)) {
+                        CharacterListing listing = gson.fromJson(reader, CharacterListing.class);
+                        String error = validate(listing);
+                        if (error == null) {
+                            ProfileStore.putCharacterListing(listing);
+                            summary.importedListings.add(listing.getCharacterName());
+                        } else {
+                            summary.skippedEntries.add(entryName + ": " + error);
+                        }
+                    } else if (!entry.isDirectory()) {
+                        summary.skippedEntries.add(entryName + ": not part of a profile");
+                    }
+                } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+                    summary.skippedEntries.add(entryName + ": not valid json");
+                }
+                zip.closeEntry();
+            }
+        } catch (IOException e) {
+            if (summary.importedListings.isEmpty() && weaponNames.isEmpty()) {
+                throw e;
+            }
+            // Keep what has been merged so far, like the entries that were skipped.
+            summary.skippedEntries.add("the rest of the archive could not be read: " + e.getMessage());
+        }
+        if (!weaponNames.isEmpty()) {
+            List<Weapon> weapons = new ArrayList<>();
+            for (String weaponName : ProfileStore.getWeaponNames()) {
+                weapons.add(ToolData.getWeapon(weaponName));
+            }
+            for (String weaponName : weaponNames) {
+                weapons.add(ToolData.getWeapon(weaponName));
+            }
+            ProfileStore.setWeapons(weapons);
+        }
+        ProfileStore.commit();
+        for (String skippedEntry : summary.skippedEntries) {
+            System.out.println("Skipped " + skippedEntry);
+        }
+        return summary;
+    }
+
+    private static void readWeapons(JsonReader reader, Set<String> weaponNames, ImportSummary summary)
+            throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.STRING) {
+                reader.skipValue();
+                summary.skippedEntries.add(WEAPONS_ENTRY + ": a weapon is not a name");
+                continue;
+            }
+            String weaponName = reader.nextString();
+            if (ToolData.isWeaponName(weaponName)) {
+                weaponNames.add(ToolData.getWeapon(weaponName).name);
+                summary.importedWeapons++;
+            } else {
+                summary.skippedEntries.add(WEAPONS_ENTRY + ": " + weaponName + " is not a weapon");
+            }
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Checks a character card against the catalog.
+     *
+     * @param listing the character card
+     * @return description of the problem, or null if the card is valid
+     */
+    private static String validate(CharacterListing listing) {
+        if (listing == null || listing.getCharacterName() == null || listing.getCharacterNotes() == null ||
+                listing.getWeapon() == null || listing.getArtifactSet1() == null ||
+                listing.getArtifactSet2() == null) {
+            return "the character card is incomplete";
+        }
+        if (listing.getCharacterNotes().length() > CHARACTER_LIMIT) {
+            return "the notes are longer than " + CHARACTER_LIMIT + " characters";
+        }
+        try {
+            Character character = ToolData.getCharacter(listing.getCharacterName());
+            if (!listing.getWeapon().isEmpty() &&
+                    !ToolData.getWeapon(listing.getWeapon()).weaponType.equalsIgnoreCase(character.weaponType)) {
+                return listing.getWeapon() + " cannot be wielded by " + character.name;
+            }
+            for (String artifactSet : new String[]{listing.getArtifactSet1(), listing.getArtifactSet2()}) {
+                if (!artifactSet.isEmpty()) {
+                    ToolData.getArtifact(artifactSet);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * Stream of a zip entry that can be handed to readers without them closing the whole archive.
+     */
+    private static final class UnclosableInputStream extends FilterInputStream {
+        UnclosableInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
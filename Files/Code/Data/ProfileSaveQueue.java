@@ -0,0 +1,160 @@
+package Files.Code.Data;
+
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * This class writes the profile in the background. Changes are staged in ProfileStore right away; the commit is
+ * delayed until no further save was requested for a short while, so a burst of changes results in a single write.
+ * Pending changes are written when the application exits. All saves of the GUI go through this queue, so the event
+ * dispatch thread never waits for the disk.
+ */
+public final class ProfileSaveQueue {
+    /**
+     * A save is written once no other save was requested for this long.
+     */
+    private static final long DEBOUNCE_MILLIS = 500;
+    /**
+     * A save is written at the latest this long after it was first requested, even if requests keep coming.
+     */
+    private static final long MAX_DELAY_MILLIS = 3000;
+
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "GDApp profile saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final List<Consumer<SAVE_STATUS>> statusListeners = new CopyOnWriteArrayList<>();
+    /**
+     * Callbacks of the save requests that have not been written yet, notified once with the result of the write.
+     */
+    private static final List<Consumer<SAVE_STATUS>> saveCallbacks = new ArrayList<>();
+    private static ScheduledFuture<?> pendingSave;
+    private static long firstRequestNanos;
+    private static SAVE_STATUS status = SAVE_STATUS.SAVED;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ProfileSaveQueue::flush, "GDApp profile flush"));
+    }
+
+    /**
+     * Status of the profile on the disk.
+     */
+    public enum SAVE_STATUS {
+        /** There are changes that have not been written yet. */
+        PENDING("Saving..."),
+        /** All changes have been written. */
+        SAVED("Saved"),
+        /** The last write failed; the changes are written again with the next save. */
+        FAILED("Save failed!");
+
+        /** The string token shown in the GUI. */
+        public final String stringToken;
+
+        SAVE_STATUS(String stringToken) {
+            this.stringToken = stringToken;
+        }
+    }
+
+    private ProfileSaveQueue() {
+    }
+
+    /**
+     * Requests the staged changes of ProfileStore to be written.
+     */
+    public static synchronized void requestSave() {
+        long now = System.nanoTime();
+        if (pendingSave == null) {
+            firstRequestNanos = now;
+        } else {
+            pendingSave.cancel(false);
+        }
+        long waited = TimeUnit.NANOSECONDS.toMillis(now - firstRequestNanos);
+        long delay = Math.max(0, Math.min(DEBOUNCE_MILLIS, MAX_DELAY_MILLIS - waited));
+        pendingSave = executor.schedule(ProfileSaveQueue::save, delay, TimeUnit.MILLISECONDS);
+        setStatus(SAVE_STATUS.PENDING);
+    }
+
+    /**
+     * Requests the staged changes of ProfileStore to be written and reports the result of the write that includes
+     * them.
+     *
+     * @param callback notified once on the event dispatch thread with SAVED or FAILED
+     */
+    public static synchronized void requestSave(Consumer<SAVE_STATUS> callback) {
+        saveCallbacks.add(callback);
+        requestSave();
+    }
+
+    /**
+     * Writes the pending changes right away, if there are any.
+     */
+    public static void flush() {
+        synchronized (ProfileSaveQueue.class) {
+            if (pendingSave == null || !pendingSave.cancel(false)) {
+                return;
+            }
+            pendingSave = null;
+        }
+        commit();
+    }
+
+    /**
+     * Adds a listener that is notified on the event dispatch thread whenever the status changes.
+     *
+     * @param listener the listener
+     */
+    public static void addStatusListener(Consumer<SAVE_STATUS> listener) {
+        statusListeners.add(listener);
+    }
+
+    private static void save() {
+        synchronized (ProfileSaveQueue.class) {
+            pendingSave = null;
+        }
+        commit();
+    }
+
+    private static void commit() {
+        List<Consumer<SAVE_STATUS>> callbacks;
+        synchronized (ProfileSaveQueue.class) {
+            // The changes of these requests have been staged, so they are part of this write.
+            callbacks = new ArrayList<>(saveCallbacks);
+            saveCallbacks.clear();
+        }
+        SAVE_STATUS result;
+        try {
+            ProfileStore.commit();
+            result = SAVE_STATUS.SAVED;
+        } catch (IOException e) {
+            System.out.println("Failed to save the profile, please try again: " + e.getMessage());
+            result = SAVE_STATUS.FAILED;
+        }
+        synchronized (ProfileSaveQueue.class) {
+            if (pendingSave == null) {
+                setStatus(result);
+            }
+        }
+        SAVE_STATUS written = result;
+        for (Consumer<SAVE_STATUS> callback : callbacks) {
+            SwingUtilities.invokeLater(() -> callback.accept(written));
+        }
+    }
+
+    private static void setStatus(SAVE_STATUS newStatus) {
+        if (status != newStatus) {
+            status = newStatus;
+            for (Consumer<SAVE_STATUS> listener : statusListeners) {
+                SwingUtilities.invokeLater(() -> listener.accept(newStatus));
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package Files.Code.Data;
+
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Backend that persists the user profile for ProfileStore. The profile is passed around as the saved character cards
+ * (as json, by character name) and the names of the weapons listed without being assigned to a character.
+ * <p>
+ * Changes are described by records, json objects with the key "op" holding the stringToken of a PROFILE_CHANGE and
+ * the keys of that change.
+ */
+interface ProfileStorage {
+    String OPERATION_KEY = "op";
+    String CHARACTER_KEY = "character";
+    String FIELD_KEY = "field";
+    String VALUE_KEY = "value";
+    String WEAPON_KEY = "weapon";
+
+    /**
+     * Changes made to the profile.
+     */
+    enum PROFILE_CHANGE {
+        /** A field of a character card was changed (see the setters of CharacterListing). */
+        SET_FIELD("set"),
+        /** A weapon was listed without being assigned to a character. */
+        LIST_WEAPON("list"),
+        /** A weapon was unlisted. */
+        UNLIST_WEAPON("unlist");
+
+        /** The string token used in the records. */
+        final String stringToken;
+        /** Map that stores all values in the form (string -> enum) */
+        static final Map<String, PROFILE_CHANGE> byString = new TreeMap<>();
+
+        static {
+            for (PROFILE_CHANGE change : PROFILE_CHANGE.values()) {
+                byString.put(change.stringToken, change);
+            }
+        }
+
+        PROFILE_CHANGE(String stringToken) {
+            this.stringToken = stringToken;
+        }
+    }
+
+    /**
+     * Returns whether a profile has been saved in this storage.
+     *
+     * @return true if there is a profile to read
+     */
+    boolean exists();
+
+    /**
+     * Reads the saved profile.
+     *
+     * @param listings receives the character cards
+     * @param weapons receives the weapon names
+     * @throws IOException if the profile cannot be read
+     */
+    void read(Map<String, JsonObject> listings, Set<String> weapons) throws IOException;
+
+    /**
+     * Reads what another process has changed in the profile since it was last read or written. If only changes have
+     * been added, just their records are returned; if the profile has been replaced, it is read completely. Unlike
+     * read, it never repairs, converts or rewrites the stored profile, as the other process may still be writing it.
+     *
+     * @param listings receives the character cards if the profile is read completely
+     * @param weapons receives the weapon names if the profile is read completely
+     * @return records of the changes made since the profile was last read or written (empty if there are none), or
+     *         null if the profile has been read completely into listings and weapons
+     * @throws IOException if the profile cannot be read
+     */
+    List<JsonObject> refresh(Map<String, JsonObject> listings, Set<String> weapons) throws IOException;
+
+    /**
+     * Writes the changes made to the profile since it was last read or written.
+     *
+     * @param changes records of the changes, in the order they were made
+     * @param listings the character cards with the changes applied
+     * @param weapons the weapon names with the changes applied
+     * @throws IOException if the changes cannot be written, the same changes are written again in that case
+     */
+    void write(List<JsonObject> changes, Map<String, JsonObject> listings, Set<String> weapons) throws IOException;
+
+    /**
+     * Replaces the saved profile.
+     *
+     * @param listings the character cards
+     * @param weapons the weapon names
+     * @throws IOException if the profile cannot be written
+     */
+    void replace(Map<String, JsonObject> listings, Set<String> weapons) throws IOException;
+}
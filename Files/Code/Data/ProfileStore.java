@@ -0,0 +1,516 @@
+package Files.Code.Data;
+
+import static Files.Code.Data.ToolData.SAVE_LOCATION;
+import static Files.Code.GUIs.ToolGUI.WEAPON_SAVE_FILE_NAME;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * This class stores the user profile: all saved character cards and the weapons listed without being assigned to a
+ * character. The profile is persisted by a ProfileStorage: files with a snapshot and a journal of changes (see
+ * JournalProfileStorage), or an embedded SQL database if its JDBC url is configured (see JdbcProfileStorage).
+ * <p>
+ * The store holds the last saved state of every character card, not the cards shown in the GUI, so unsaved changes
+ * of a card are never written. Changes are staged with putCharacterListing and setWeapons, which record only what
+ * actually changed (single fields of a card, listed and unlisted weapons), and written together by commit. The store
+ * is locked only to stage or take changes; the storage is written outside of that lock, so staging a change never
+ * waits for the disk.
+ * <p>
+ * Profiles saved by older versions (one file per character and saved_weapons.json) are migrated into the storage on
+ * first load; the old files are then moved to the Legacy folder. A profile kept in files is moved into the database
+ * when the database is configured and still empty, and its files are moved to the Legacy folder as well.
+ */
+public final class ProfileStore {
+    /**
+     * Folder in the save location that receives the save files of older versions after the migration.
+     */
+    public static final String LEGACY_FOLDER_NAME = "Legacy";
+    /**
+     * Start of the names of all files that belong to the profile storages.
+     */
+    static final String PROFILE_FILE_PREFIX = "profile.";
+    static final String CHARACTER_NAME_KEY = "characterName";
+
+    private static final Gson gson = new Gson();
+    /**
+     * Saved character cards as json, by character name.
+     */
+    private static final Map<String, JsonObject> savedListings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    /**
+     * Names of the saved weapons that are not assigned to any character.
+     */
+    private static final Set<String> savedWeapons = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    /**
+     * Records of the staged changes, written by the next commit.
+     */
+    private static final List<JsonObject> pendingChanges = new ArrayList<>();
+    private static final JournalProfileStorage files = new JournalProfileStorage(Paths.get(SAVE_LOCATION));
+    private static ProfileStorage storage = files;
+    /**
+     * The database storage, or null if the profile is kept in files.
+     */
+    private static JdbcProfileStorage database;
+    /**
+     * Held while the storage is read or written, so commits and reloads do not overlap. It is always taken before
+     * the lock of the store.
+     */
+    private static final Object storageLock = new Object();
+
+    private ProfileStore() {
+    }
+
+    /**
+     * Reads the profile. The save files of older versions are migrated if there is no profile yet. The catalog has
+     * to be parsed at this point.
+     *
+     * @throws IOException if the profile cannot be read
+     */
+    public static void load() throws IOException {
+        synchronized (storageLock) {
+            synchronized (ProfileStore.class) {
+                savedListings.clear();
+                savedWeapons.clear();
+                pendingChanges.clear();
+                String databaseUrl = System.getProperty(JdbcProfileStorage.DATABASE_URL_PROPERTY);
+                if (database == null && databaseUrl != null) {
+                    database = JdbcProfileStorage.open(databaseUrl);
+                    storage = database;
+                }
+
+                if (storage.exists()) {
+                    storage.read(savedListings, savedWeapons);
+                } else if (storage == database && files.exists()) {
+                    files.read(savedListings, savedWeapons);
+                    database.replace(savedListings, savedWeapons);
+                    files.moveToLegacyFolder();
+                    System.out.println("Moved the profile into the database.");
+                } else if (Files.isDirectory(getSaveLocation())) {
+                    migrateLegacySaves();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the profile again after it has been changed outside the application (by another instance, a sync tool or
+     * a restored backup). Only the changes made since the profile was last read or written are applied, unless the
+     * profile has been replaced. The changes staged but not yet committed are kept on top of it. Changes written by
+     * the application itself are not read again.
+     *
+     * @return names of the characters whose saved character card differs from before, including removed cards
+     * @throws IOException if the profile cannot be read
+     */
+    public static Set<String> reload() throws IOException {
+        synchronized (storageLock) {
+            Map<String, JsonObject> listings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            Set<String> weapons = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            List<JsonObject> changes = storage.refresh(listings, weapons);
+            if (changes == null) {
+                return merge(listings, weapons);
+            }
+            if (changes.isEmpty()) {
+                return Collections.emptySet();
+            }
+            return mergeChanges(changes);
+        }
+    }
+
+    /**
+     * Applies changes read from the storage to the saved profile, keeping the staged changes on top of them.
+     *
+     * @param changes records of the changes
+     * @return names of the characters whose saved character card differs from before
+     */
+    private static synchronized Set<String> mergeChanges(List<JsonObject> changes) {
+        Map<String, JsonObject> listings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        listings.putAll(savedListings);
+        Set<String> weapons = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        weapons.addAll(savedWeapons);
+        // The saved cards may be shared with a commit in progress, so the cards about to change are copied.
+        for (List<JsonObject> records : Arrays.asList(changes, pendingChanges)) {
+            for (JsonObject change : records) {
+                if (change.has(ProfileStorage.CHARACTER_KEY)) {
+                    String characterName = change.get(ProfileStorage.CHARACTER_KEY).getAsString();
+                    JsonObject listing = listings.get(characterName);
+                    if (listing != null && listing == savedListings.get(characterName)) {
+                        listings.put(characterName, listing.deepCopy());
+                    }
+                }
+            }
+        }
+        // The staged changes are already applied to the saved profile; merge applies them again after the read
+        // changes, as they will be written after them.
+        for (JsonObject change : changes) {
+            applyChange(change, listings, weapons);
+        }
+        return merge(listings, weapons);
+    }
+
+    /**
+     * Replaces the saved profile with the one read from the storage, keeping the staged changes on top of it.
+     *
+     * @param listings the character cards read from the storage
+     * @param weapons the weapon names read from the storage
+     * @return names of the characters whose saved character card differs from before, including removed cards
+     */
+    private static synchronized Set<String> merge(Map<String, JsonObject> listings, Set<String> weapons) {
+        for (JsonObject change : pendingChanges) {
+            applyChange(change, listings, weapons);
+        }
+        Set<String> changedListings = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, JsonObject> listing : listings.entrySet()) {
+            if (!listing.getValue().equals(savedListings.get(listing.getKey()))) {
+                changedListings.add(listing.getKey());
+            }
+        }
+        for (String characterName : savedListings.keySet()) {
+            if (!listings.containsKey(characterName)) {
+                changedListings.add(characterName);
+            }
+        }
+        savedListings.clear();
+        savedListings.putAll(listings);
+        savedWeapons.clear();
+        savedWeapons.addAll(weapons);
+        return changedListings;
+    }
+
+    /**
+     * Returns the names of all characters with a saved character card.
+     *
+     * @return character names, ordered by name
+     */
+    public static synchronized List<String> getCharacterNames() {
+        return new ArrayList<>(savedListings.keySet());
+    }
+
+    /**
+     * Returns the saved character card of a character.
+     *
+     * @param characterName name of the character
+     * @return the character card, or null if none has been saved
+     */
+    public static synchronized CharacterListing getCharacterListing(String characterName) {
+        JsonObject savedListing = savedListings.get(characterName);
+        return savedListing == null ? null : gson.fromJson(savedListing, CharacterListing.class);
+    }
+
+    /**
+     * Returns all saved character cards.
+     *
+     * @return the character cards, ordered by character name
+     */
+    public static synchronized List<CharacterListing> getCharacterListings() {
+        List<CharacterListing> characterListings = new ArrayList<>();
+        for (JsonObject savedListing : savedListings.values()) {
+            characterListings.add(gson.fromJson(savedListing, CharacterListing.class));
+        }
+        return characterListings;
+    }
+
+    /**
+     * Returns the names of all saved weapons that are not assigned to any character.
+     *
+     * @return weapon names
+     */
+    public static synchronized List<String> getWeaponNames() {
+        return new ArrayList<>(savedWeapons);
+    }
+
+    /**
+     * Returns the names of the characters whose saved character card farms the item: the weapon or artifact set
+     * with its status checked, the talent materials of the character if the talent status is checked, or the
+     * ascension material of the checked weapon. The database answers this with indexed lookups of the committed
+     * character cards; without it, the saved character cards are searched.
+     *
+     * @param item the item
+     * @return character names, ordered by name
+     */
+    public static List<String> getFarmingCharacters(Item item) {
+        synchronized (storageLock) {
+            if (database != null) {
+                try {
+                    return database.getFarmingCharacters(item);
+                } catch (IOException e) {
+                    System.out.println(e.getMessage() + " Searching the character cards instead.");
+                }
+            }
+        }
+        List<String> characterNames = new ArrayList<>();
+        for (CharacterListing listing : getCharacterListings()) {
+            if (isFarming(listing, item)) {
+                characterNames.add(listing.getCharacterName());
+            }
+        }
+        return characterNames;
+    }
+
+    /**
+     * Stages the current state of a character card. Only the fields that changed since the card was last saved are
+     * written by the next commit.
+     *
+     * @param characterListing the character card
+     */
+    public static synchronized void putCharacterListing(CharacterListing characterListing) {
+        String characterName = characterListing.getCharacterName();
+        JsonObject listing = gson.toJsonTree(characterListing).getAsJsonObject();
+        JsonObject previous = savedListings.get(characterName);
+        for (Map.Entry<String, JsonElement> field : listing.entrySet()) {
+            if (previous == null || !field.getValue().equals(previous.get(field.getKey()))) {
+                JsonObject change = createChange(ProfileStorage.PROFILE_CHANGE.SET_FIELD);
+                change.addProperty(ProfileStorage.CHARACTER_KEY, characterName);
+                change.addProperty(ProfileStorage.FIELD_KEY, field.getKey());
+                change.add(ProfileStorage.VALUE_KEY, field.getValue());
+                pendingChanges.add(change);
+            }
+        }
+        savedListings.put(characterName, listing);
+    }
+
+    /**
+     * Stages the weapons that are not assigned to any character. Only the weapons that were listed or unlisted since
+     * the last save are written by the next commit.
+     *
+     * @param weapons the weapons
+     */
+    public static synchronized void setWeapons(Collection<Weapon> weapons) {
+        Set<String> weaponNames = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (Weapon weapon : weapons) {
+            weaponNames.add(weapon.name);
+        }
+        for (String weaponName : savedWeapons) {
+            if (!weaponNames.contains(weaponName)) {
+                pendingChanges.add(createWeaponChange(ProfileStorage.PROFILE_CHANGE.UNLIST_WEAPON, weaponName));
+            }
+        }
+        for (String weaponName : weaponNames) {
+            if (!savedWeapons.contains(weaponName)) {
+                pendingChanges.add(createWeaponChange(ProfileStorage.PROFILE_CHANGE.LIST_WEAPON, weaponName));
+            }
+        }
+        savedWeapons.clear();
+        savedWeapons.addAll(weaponNames);
+    }
+
+    /**
+     * Writes all staged changes.
+     *
+     * @throws IOException if the changes cannot be written, they are written again by the next commit in that case
+     */
+    public static void commit() throws IOException {
+        synchronized (storageLock) {
+            List<JsonObject> changes;
+            Map<String, JsonObject> listings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            Set<String> weapons = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            synchronized (ProfileStore.class) {
+                changes = new ArrayList<>(pendingChanges);
+                pendingChanges.clear();
+                // The saved cards are replaced, never modified, so the copy can share them.
+                listings.putAll(savedListings);
+                weapons.addAll(savedWeapons);
+            }
+            try {
+                storage.write(changes, listings, weapons);
+            } catch (IOException e) {
+                synchronized (ProfileStore.class) {
+                    pendingChanges.addAll(0, changes);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Applies a change to a profile.
+     *
+     * @param change record of the change
+     * @param listings the character cards
+     * @param weapons the weapon names
+     */
+    static void applyChange(JsonObject change, Map<String, JsonObject> listings, Set<String> weapons) {
+        switch (ProfileStorage.PROFILE_CHANGE.byString.get(change.get(ProfileStorage.OPERATION_KEY).getAsString())) {
+            case SET_FIELD: {
+                String characterName = change.get(ProfileStorage.CHARACTER_KEY).getAsString();
+                JsonObject listing = listings.get(characterName);
+                if (listing == null) {
+                    listing = gson.toJsonTree(new CharacterListing(characterName)).getAsJsonObject();
+                    listings.put(characterName, listing);
+                }
+                listing.add(change.get(ProfileStorage.FIELD_KEY).getAsString(),
+                        change.get(ProfileStorage.VALUE_KEY));
+                break;
+            }
+            case LIST_WEAPON:
+                weapons.add(change.get(ProfileStorage.WEAPON_KEY).getAsString());
+                break;
+            case UNLIST_WEAPON:
+                weapons.remove(change.get(ProfileStorage.WEAPON_KEY).getAsString());
+                break;
+        }
+    }
+
+    private static Path getSaveLocation() {
+        return Paths.get(SAVE_LOCATION);
+    }
+
+    private static JsonObject createChange(ProfileStorage.PROFILE_CHANGE type) {
+        JsonObject change = new JsonObject();
+        change.addProperty(ProfileStorage.OPERATION_KEY, type.stringToken);
+        return change;
+    }
+
+    private static JsonObject createWeaponChange(ProfileStorage.PROFILE_CHANGE type, String weaponName) {
+        JsonObject change = createChange(type);
+        change.addProperty(ProfileStorage.WEAPON_KEY, weaponName);
+        return change;
+    }
+
+    private static boolean isFarming(CharacterListing listing, Item item) {
+        try {
+            if (item instanceof Weapon) {
+                return listing.getWeaponStatus() && item.equals(listing.getEquippedWeapon());
+            } else if (item instanceof Artifact) {
+                return listing.getArtifactSet1Status() && item.equals(listing.getEquippedArtifactSet1()) ||
+                        listing.getArtifactSet2Status() && item.equals(listing.getEquippedArtifactSet2());
+            } else if (item instanceof TalentMaterial) {
+                return listing.getTalentStatus() && item.equals(listing.getCharacter().getTalentBook());
+            } else if (item instanceof WeeklyTalentMaterial) {
+                return listing.getTalentStatus() && item.equals(listing.getCharacter().getWeeklyTalentMaterial());
+            } else if (item instanceof WeaponMaterial) {
+                return listing.getWeaponStatus() && listing.getEquippedWeapon() != null &&
+                        item.equals(listing.getEquippedWeapon().getAscensionMaterial());
+            }
+        } catch (IllegalArgumentException e) {
+            // The card references an item that is no longer in the catalog.
+        }
+        return false;
+    }
+
+    /**
+     * Reads the save files of older versions, writes them into the profile and moves them to the Legacy folder.
+     *
+     * @throws IOException if the profile cannot be written
+     */
+    private static void migrateLegacySaves() throws IOException {
+        List<Path> legacySaves = new ArrayList<>();
+        try (DirectoryStream<Path> saves = Files.newDirectoryStream(getSaveLocation(),
+                path -> Files.isRegularFile(path) && !path.getFileName().toString().startsWith(PROFILE_FILE_PREFIX))) {
+            for (Path save : saves) {
+                legacySaves.add(save);
+            }
+        }
+        if (legacySaves.isEmpty()) {
+            return;
+        }
+        // The files are parsed in parallel and merged in one pass afterwards.
+        List<CompletableFuture<JsonElement>> contents = new ArrayList<>();
+        for (Path save : legacySaves) {
+            contents.add(CompletableFuture.supplyAsync(() -> readLegacySave(save)));
+        }
+        List<Path> migratedSaves = new ArrayList<>();
+        for (int i = 0; i < legacySaves.size(); i++) {
+            JsonElement content;
+            try {
+                content = contents.get(i).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw e;
+            }
+            try {
+                if (legacySaves.get(i).getFileName().toString().equals(WEAPON_SAVE_FILE_NAME)) {
+                    for (JsonElement weapon : content.getAsJsonArray()) {
+                        savedWeapons.add(weapon.getAsJsonObject().get("name").getAsString());
+                    }
+                } else {
+                    JsonObject listing = content.getAsJsonObject();
+                    savedListings.put(listing.get(CHARACTER_NAME_KEY).getAsString(), listing);
+                }
+                migratedSaves.add(legacySaves.get(i));
+            } catch (IllegalStateException | NullPointerException e) {
+                System.out.println("Could not migrate the save file " + legacySaves.get(i).getFileName() +
+                        ", it is left in the save location.");
+            }
+        }
+        storage.replace(savedListings, savedWeapons);
+
+        Path legacyFolder = Files.createDirectories(getSaveLocation().resolve(LEGACY_FOLDER_NAME));
+        for (Path save : migratedSaves) {
+            Files.move(save, legacyFolder.resolve(save.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        }
+        System.out.println("Migrated " + migratedSaves.size() + " save files into the profile.");
+    }
+
+    /**
+     * Parses a save file of an older version. Older versions wrote the files in the default charset of the JVM that
+     * saved them, which need not be the current one, so the file is decoded with the first charset that fits it.
+     *
+     * @param save the save file
+     * @return its content, or JsonNull if it is not valid json in any of the charsets
+     * @throws CompletionException if the file cannot be read
+     */
+    private static JsonElement readLegacySave(Path save) {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(save);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+        for (Charset charset : getLegacyCharsets()) {
+            try {
+                return JsonParser.parseString(charset.newDecoder().decode(ByteBuffer.wrap(content)).toString());
+            } catch (CharacterCodingException e) {
+                // The file was written in another charset.
+            } catch (JsonParseException e) {
+                return JsonNull.INSTANCE;
+            }
+        }
+        return JsonNull.INSTANCE;
+    }
+
+    /**
+     * Returns the charsets the save files of older versions may have been written in: the default charset, UTF-8
+     * (the default since Java 18) and the charset of the platform (the default before).
+     *
+     * @return the charsets, most likely first
+     */
+    private static Set<Charset> getLegacyCharsets() {
+        Set<Charset> charsets = new LinkedHashSet<>();
+        charsets.add(Charset.defaultCharset());
+        charsets.add(StandardCharsets.UTF_8);
+        String nativeEncoding = System.getProperty("native.encoding");
+        if (nativeEncoding != null && Charset.isSupported(nativeEncoding)) {
+            charsets.add(Charset.forName(nativeEncoding));
+        }
+        return charsets;
+    }
+}
@@ -0,0 +1,110 @@
+package Files.Code.Data;
+
+import static Files.Code.Data.ToolData.SAVE_LOCATION;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * This class watches the save location for changes of the profile made outside the application, i.e. by another
+ * instance, a sync tool or a restored backup, and reloads the profile when they happen.
+ * <p>
+ * Events are collected until the save location has been quiet for a short while, so a burst of writes results in a
+ * single reload. The reload only reads what has been added to the profile since it was last read or written, and the
+ * storage recognizes the application's own writes by the size and modification time it left the files with, so they
+ * are not read again and no card is reported as changed.
+ */
+public final class ProfileWatcher {
+    /**
+     * The profile is reloaded once no file has changed for this long.
+     */
+    private static final long QUIET_MILLIS = 300;
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    private static Thread watcherThread;
+
+    private ProfileWatcher() {
+    }
+
+    /**
+     * Starts watching the save location, if it is not watched yet.
+     *
+     * @param listener notified on the watcher thread with the names of the characters whose saved character card
+     *                 changed; the names of the unassigned weapons may have changed as well
+     */
+    public static synchronized void start(Consumer<Set<String>> listener) {
+        if (watcherThread != null) {
+            return;
+        }
+        WatchService watchService;
+        try {
+            Path saveLocation = Files.createDirectories(Paths.get(SAVE_LOCATION));
+            watchService = FileSystems.getDefault().newWatchService();
+            saveLocation.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            System.out.println("The save location cannot be watched, changes made outside the application are only " +
+                    "read on the next start: " + e.getMessage());
+            return;
+        }
+        watcherThread = new Thread(() -> watch(watchService, listener), "GDApp profile watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private static void watch(WatchService watchService, Consumer<Set<String>> listener) {
+        try {
+            while (true) {
+                boolean profileChanged = pollProfileChanges(watchService.take());
+                // Wait until the files have been quiet for a while.
+                WatchKey key;
+                while ((key = watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    profileChanged |= pollProfileChanges(key);
+                }
+                if (!profileChanged) {
+                    continue;
+                }
+                try {
+                    Set<String> changedListings = ProfileStore.reload();
+                    listener.accept(changedListings);
+                } catch (IOException e) {
+                    System.out.println("The changed profile could not be read: " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // The application is exiting.
+        }
+    }
+
+    /**
+     * Takes the events of the key and resets it.
+     *
+     * @param key the signalled key
+     * @return true if a file of the profile has changed
+     */
+    private static boolean pollProfileChanges(WatchKey key) {
+        boolean profileChanged = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                profileChanged = true;
+            } else {
+                String fileName = event.context().toString();
+                profileChanged |= fileName.startsWith(ProfileStore.PROFILE_FILE_PREFIX) &&
+                        !fileName.endsWith(TEMPORARY_EXTENSION);
+            }
+        }
+        key.reset();
+        return profileChanged;
+    }
+}
@@ -1,5 +1,6 @@
 package Files.Code.Data;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -7,19 +8,37 @@ import java.util.List;
  */
 public class TalentMaterial extends FarmableItem {
     /**
-     * All characters that can use this talent material.
+     * All characters that can use this talent material. Filled when the catalog is linked.
      */
-    public final List<String> usedBy;
+    public final List<Character> usedBy = new ArrayList<>();
+    private int[] usedByIds = new int[0];
 
     /**
      * Constructor of Talent Material class
      * @param itemName name of talent material
      * @param availability availability of talent material
-     * @param usedBy list of characters that can use it.
      */
 
-    public TalentMaterial(String itemName, String availability, List<String> usedBy) {
+    public TalentMaterial(String itemName, String availability) {
         super(itemName, availability);
-        this.usedBy = usedBy;
+    }
+
+    /**
+     * Returns the ids of the characters in usedBy, in ascending order. Filled when the catalog is linked, the array
+     * must not be modified.
+     *
+     * @return ids of the characters
+     */
+    public int[] getUsedByIds() {
+        return usedByIds;
+    }
+
+    void setUsedByIds(int[] usedByIds) {
+        this.usedByIds = usedByIds;
+    }
+
+    @Override
+    public ToolData.RESOURCE_TYPE getResourceType() {
+        return ToolData.RESOURCE_TYPE.TALENT_BOOK;
     }
 }
@@ -5,27 +5,42 @@ import Files.Code.Auxiliary.DomainAdapter;
 import Files.Code.Auxiliary.ItemComparator;
 import Files.Code.Auxiliary.WeaponAdapter;
 import Files.Code.GUIs.ToolGUI;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
 import com.google.gson.stream.JsonReader;
 
 import javax.swing.ImageIcon;
 import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
 import java.awt.Font;
 import java.awt.FontFormatException;
-import java.awt.Image;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 /** Main class of the application. Parses all static data from the json files, taken from the Genshin Fandom Wiki. */
 public class ToolData {
@@ -37,6 +52,10 @@ public class ToolData {
     private static final Map<String, Font> fonts = new TreeMap<>();
     /** Save location of user data. */
     public static final String SAVE_LOCATION = "./UserData/";
+    /** Location of files generated by the application, which can be deleted at any time. */
+    public static final String CACHE_LOCATION = "./Cache/";
+    /** Binary snapshot of the parsed json files, regenerated whenever one of them changes. */
+    public static final String CATALOG_SNAPSHOT_FILE_NAME = "catalog.bin";
     /**
      * Comparator class for items. All treesets need to have this as argument upon creation.
      */
@@ -73,6 +92,28 @@ public class ToolData {
      * All placeholder icons to use in GUIs.
      */
     public static final Map<String, ImageIcon> placeholderIcons = new TreeMap<>();
+    /**
+     * Upper bound of worker threads used to parse the static data on startup.
+     */
+    private static final int STARTUP_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final Map<STARTUP_PHASE, Long> startupTimings = new ConcurrentHashMap<>();
+    /*
+     * Name indices of all categories. Keys are lower case names, values are the items from the respective sets.
+     */
+    private static final Map<String, Character> characterIndex = new HashMap<>();
+    private static final Map<String, Weapon> weaponIndex = new HashMap<>();
+    private static final Map<String, WeaponMaterial> weaponMaterialIndex = new HashMap<>();
+    private static final Map<String, TalentMaterial> talentMaterialIndex = new HashMap<>();
+    private static final Map<String, Artifact> artifactIndex = new HashMap<>();
+    private static final Map<String, WeeklyTalentMaterial> weeklyTalentMaterialIndex = new HashMap<>();
+    /**
+     * All characters by their id.
+     */
+    private static Character[] charactersById = new Character[0];
+    /**
+     * All weapons by their id.
+     */
+    private static Weapon[] weaponsById = new Weapon[0];
 
     /** Enum that represents known mappings. All methods should use it instead of String values. */
     public enum DATA_CATEGORY {
@@ -85,7 +126,8 @@ public class ToolData {
 
         /** The string token used to look up the mapping. */
         public final String stringToken;
-        private final String datapath;
+        /** The resource path of the json file. */
+        final String datapath;
 
         DATA_CATEGORY(String dataCategory, String dataPath) {
             this.stringToken = dataCategory;
@@ -93,6 +135,31 @@ public class ToolData {
         }
     }
 
+    /** Phases of the startup, used to report how long each of them took. */
+    private enum STARTUP_PHASE {
+        /** Reading the catalog snapshot, or parsing the json files if it is out of date */
+        CATALOG("catalog"),
+        /** Sorting domain materials into their categories and indexing all names and ids */
+        MATERIALS("materials"),
+        /** Decoding of the placeholder icons (item icons are decoded on first use) */
+        ICONS("icons"),
+        /** Parsing of the font files */
+        FONTS("fonts"),
+        /** Linking characters and weapons to their materials and the materials to their users */
+        LINK("link"),
+        /** Writing a new catalog snapshot after the json files have been parsed */
+        SNAPSHOT("snapshot"),
+        /** The whole startup, from the first parsed file until everything is ready */
+        TOTAL("total");
+
+        /** The string token used in the timing report. */
+        public final String stringToken;
+
+        STARTUP_PHASE(String token) {
+            stringToken = token;
+        }
+    }
+
     /** Enum that represents weapon rarities (FIVE and FOUR). It doesn't consider THREE_STAR. */
     public enum WEAPON_RARITY {
         /** 5 Star rarity! */
@@ -153,6 +220,54 @@ public class ToolData {
         }
     }
 
+    /** Domain types, i.e. the kinds of materials obtainable from the domains. */
+    public enum DOMAIN_TYPE {
+        /** Artifact domain */
+        ARTIFACT("Artifact", RESOURCE_TYPE.ARTIFACT),
+        /** Talent book domain */
+        TALENT_BOOK("Talent Book", RESOURCE_TYPE.TALENT_BOOK),
+        /** Weekly boss domain */
+        WEEKLY_BOSS_MATERIAL("Weekly Boss Material", RESOURCE_TYPE.WEEKLY_BOSS_MATERIAL),
+        /** Weapon material domain */
+        WEAPON_MATERIAL("Weapon Material", RESOURCE_TYPE.WEAPON_MATERIAL);
+
+        /** The string token used in domains.json. */
+        public final String stringToken;
+        /** Resource type of the materials obtainable from the domain. */
+        public final RESOURCE_TYPE materialType;
+        /**
+         * Map that stores all values in the form (string -> enum), ignoring case
+         */
+        public static final Map<String, DOMAIN_TYPE> byString = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        static {
+            for (DOMAIN_TYPE dt : DOMAIN_TYPE.values()) {
+                byString.put(dt.stringToken, dt);
+            }
+        }
+
+        DOMAIN_TYPE(String token, RESOURCE_TYPE materialType) {
+            stringToken = token;
+            this.materialType = materialType;
+        }
+
+        /**
+         * Resolves a domain type from its string token.
+         *
+         * @param token the string token, in any case
+         * @return the domain type
+         * @throws IllegalArgumentException if there is no such domain type or the token is null
+         */
+        public static DOMAIN_TYPE fromString(String token) {
+            // The case-insensitive map cannot look up null.
+            DOMAIN_TYPE domainType = token == null ? null : byString.get(token);
+            if (domainType == null) {
+                throw new IllegalArgumentException("Unknown domain type: " + token);
+            }
+            return domainType;
+        }
+    }
+
     /** All the fields listed in the character card window. */
     public enum CHARACTER_CARD_DATA_FIELD {
         /** Simply the chosen character's name. */
@@ -234,55 +349,124 @@ public class ToolData {
 
         /** String that contains the name of the font */
         final public Font fontName;
+        /** Fonts derived from this font, by size. Shared by all GUIs, as there are only a few sizes in use. */
+        private final Map<Float, Font> derivedFonts = new ConcurrentHashMap<>();
 
         AVAILABLE_FONTS(Font font) {
             this.fontName = font;
         }
+
+        /**
+         * Returns this font in the given size. Every size is derived only once.
+         *
+         * @param size desired size
+         * @return the derived font
+         */
+        public Font deriveFont(float size) {
+            return derivedFonts.computeIfAbsent(size, fontName::deriveFont);
+        }
     }
 
     /**
-     * Method for changing the font of any JComponent
+     * Method for changing the font of any JComponent. The derived fonts are cached, so no new font is created for
+     * sizes that have been used before.
      *
      * @param jcomponent any component that needs their font changed.
      * @param desiredFont any font from AVAILABLE_FONTS
      * @param size of the desired font, duh!
      */
     public static void changeFont(JComponent jcomponent, AVAILABLE_FONTS desiredFont, float size) {
-        jcomponent.setFont(desiredFont.fontName.deriveFont(size));
-    }
-
-    private static void parseDataJsonFiles() throws IOException {
-        GsonBuilder gsonBuilder = new GsonBuilder();
-        TypeToken<Set<Character>> characterToken = new TypeToken<Set<Character>>() {
-        };
-        TypeToken<Set<Domain>> domainToken = new TypeToken<Set<Domain>>() {
-        };
-        TypeToken<Set<Weapon>> weaponToken = new TypeToken<Set<Weapon>>() {
-        };
-        Gson gson = gsonBuilder.registerTypeAdapter(characterToken.getType(), new CharacterAdapter())
-                .registerTypeAdapter(weaponToken.getType(), new WeaponAdapter())
-                .registerTypeAdapter(domainToken.getType(), new DomainAdapter()).create();
-        for (DATA_CATEGORY dataCategory : DATA_CATEGORY.values()) {
-            URL url = ToolData.class.getResource(dataCategory.datapath);
-            assert url != null;
+        jcomponent.setFont(desiredFont.deriveFont(size));
+    }
 
-            JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(url.openStream())));
+    private static Collection<? extends Item> parseDataJsonFile(DATA_CATEGORY dataCategory) throws IOException {
+        URL url = ToolData.class.getResource(dataCategory.datapath);
+        assert url != null;
+
+        try (JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(url.openStream())))) {
             switch (dataCategory) {
                 case DOMAIN:
-                    domains.addAll(gson.fromJson(reader, domainToken));
-                    break;
+                    return new DomainAdapter().read(reader);
                 case CHARACTER:
-                    characters.addAll(gson.fromJson(reader, characterToken));
-                    break;
+                    return new CharacterAdapter().read(reader);
                 case WEAPON:
-                    weapons.addAll(gson.fromJson(reader, weaponToken));
-                    break;
+                    return new WeaponAdapter().read(reader);
                 default:
                     throw new IOException("parsing data " + dataCategory.stringToken + " went wrong.");
             }
         }
     }
 
+    /**
+     * Parses all json files concurrently. Every data category is parsed by its own task, the results are merged into
+     * the static sets once all of them are done.
+     *
+     * @param executor executor running the parsing tasks
+     * @return the stage that completes once all categories are parsed and merged
+     */
+    static CompletableFuture<Void> parseDataJsonFiles(Executor executor) {
+        Map<DATA_CATEGORY, CompletableFuture<Collection<? extends Item>>> parsedCategories =
+                new EnumMap<>(DATA_CATEGORY.class);
+        for (DATA_CATEGORY dataCategory : DATA_CATEGORY.values()) {
+            parsedCategories.put(dataCategory, CompletableFuture.supplyAsync(() -> {
+                try {
+                    return parseDataJsonFile(dataCategory);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor));
+        }
+        return CompletableFuture.allOf(parsedCategories.values().toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            for (Map.Entry<DATA_CATEGORY, CompletableFuture<Collection<? extends Item>>> parsed :
+                    parsedCategories.entrySet()) {
+                Collection<? extends Item> items = parsed.getValue().join();
+                switch (parsed.getKey()) {
+                    case DOMAIN:
+                        for (Item item : items) {
+                            domains.add((Domain) item);
+                        }
+                        break;
+                    case CHARACTER:
+                        for (Item item : items) {
+                            characters.add((Character) item);
+                        }
+                        break;
+                    case WEAPON:
+                        for (Item item : items) {
+                            weapons.add((Weapon) item);
+                        }
+                        break;
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the size and the modification time of a resource, which change whenever the resource does. Resources
+     * in the file system are examined without being opened.
+     *
+     * @param resource the resource
+     * @return the size in bytes and the modification time in milliseconds
+     * @throws IOException if the resource cannot be accessed
+     */
+    static long[] getResourceStamp(URL resource) throws IOException {
+        if ("file".equals(resource.getProtocol())) {
+            try {
+                Path path = Paths.get(resource.toURI());
+                return new long[]{Files.size(path), Files.getLastModifiedTime(path).toMillis()};
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        // Connecting opens the resource (i.e. the jar entry), so it has to be closed again.
+        URLConnection connection = resource.openConnection();
+        try {
+            return new long[]{connection.getContentLengthLong(), connection.getLastModified()};
+        } finally {
+            connection.getInputStream().close();
+        }
+    }
+
     /**
      * Generates a path to the specified resource.
      *
@@ -290,7 +474,7 @@ public class ToolData {
      * @param resourceType the type of the resource
      * @return character icon path
      */
-    private static URL generateResourceIconPath(Object resource, RESOURCE_TYPE resourceType) {
+    static URL generateResourceIconPath(Object resource, RESOURCE_TYPE resourceType) {
         assert resource != null;
         switch (resourceType) {
             case WEAPON_NAME: {
@@ -332,73 +516,164 @@ public class ToolData {
         throw new IllegalArgumentException();
     }
 
-    private static void parseFonts() {
+    private static Font parseFont(String fontName) {
+        URL address = ToolData.class.getResource("/Files/Fonts/" + fontName + ".ttf");
+        assert address != null;
+        try (InputStream stream = address.openStream()) {
+            return Font.createFont(Font.TRUETYPE_FONT, stream);
+        } catch (FontFormatException e) {
+            System.out.println("Failed to parse font: " + fontName);
+        } catch (IOException e) {
+            System.out.println(e.getMessage() + fontName);
+        }
+        return null;
+    }
+
+    /**
+     * Parses all fonts concurrently, one task per font file.
+     *
+     * @param executor executor running the parsing tasks
+     * @return the stage that completes once all fonts are parsed and stored
+     */
+    private static CompletableFuture<Void> parseFonts(Executor executor) {
+        Map<String, CompletableFuture<Font>> parsedFonts = new TreeMap<>();
         for (String fontName : fontPaths) {
-            URL address = ToolData.class.getResource("/Files/Fonts/" + fontName + ".ttf");
-            try {
-                assert address != null;
-                Font f = Font.createFont(Font.TRUETYPE_FONT, address.openStream());
-                fonts.put(fontName, f);
-            } catch (FontFormatException e) {
-                System.out.println("Failed to parse font: " + fontName);
-            } catch (IOException e) {
-                System.out.println(e.getMessage() + fontName);
+            parsedFonts.put(fontName, CompletableFuture.supplyAsync(() -> parseFont(fontName), executor));
+        }
+        return CompletableFuture.allOf(parsedFonts.values().toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            for (Map.Entry<String, CompletableFuture<Font>> parsed : parsedFonts.entrySet()) {
+                Font font = parsed.getValue().join();
+                if (font != null) {
+                    fonts.put(parsed.getKey(), font);
+                }
             }
+        });
+    }
+
+    private static String normalizeName(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static <T extends Item> void indexByName(Map<String, T> index, Collection<T> items) {
+        index.clear();
+        for (T item : items) {
+            index.put(normalizeName(item.name), item);
         }
     }
 
+    /**
+     * Builds the name indices of all categories. Must be called once the catalog is complete.
+     */
+    static void buildNameIndices() {
+        indexByName(characterIndex, characters);
+        indexByName(weaponIndex, weapons);
+        indexByName(weaponMaterialIndex, weaponMaterials);
+        indexByName(talentMaterialIndex, talentMaterials);
+        indexByName(artifactIndex, artifacts);
+        indexByName(weeklyTalentMaterialIndex, weeklyTalentMaterials);
+    }
+
+    private static void assignIds(Collection<? extends Item> items) {
+        int id = 0;
+        for (Item item : items) {
+            item.setId(id++);
+        }
+    }
+
+    /**
+     * Assigns the dense ids of all categories in the order of their sets. Must be called once the catalog is complete.
+     */
+    static void assignIds() {
+        assignIds(characters);
+        assignIds(weapons);
+        assignIds(weaponMaterials);
+        assignIds(talentMaterials);
+        assignIds(artifacts);
+        assignIds(weeklyTalentMaterials);
+        charactersById = characters.toArray(new Character[0]);
+        weaponsById = weapons.toArray(new Weapon[0]);
+    }
+
+    private static <T extends Item> T lookUpByName(Map<String, T> index, String name) {
+        return name == null ? null : index.get(normalizeName(name));
+    }
+
     public static Character getCharacter(String name) {
-        for (Character character : characters) {
-            if (character.name.equalsIgnoreCase(name)) {
-                return character;
-            }
+        Character character = lookUpByName(characterIndex, name);
+        if (character == null) {
+            throw new IllegalArgumentException(name + "is not a character name");
         }
-        throw new IllegalArgumentException(name + "is not a character name");
+        return character;
+    }
+
+    /**
+     * Returns the character with the given id.
+     *
+     * @param id id of the character, see Item.getId
+     * @return the character
+     */
+    public static Character getCharacter(int id) {
+        return charactersById[id];
+    }
+
+    /**
+     * Returns the weapon with the given id.
+     *
+     * @param id id of the weapon, see Item.getId
+     * @return the weapon
+     */
+    public static Weapon getWeapon(int id) {
+        return weaponsById[id];
     }
 
     public static Weapon getWeapon(String name) {
-        for (Weapon weapon : weapons) {
-            if (weapon.name.equalsIgnoreCase(name)) {
-                return weapon;
-            }
+        Weapon weapon = lookUpByName(weaponIndex, name);
+        if (weapon == null) {
+            throw new IllegalArgumentException(name + "is not a weapon name");
         }
-        throw new IllegalArgumentException(name + "is not a weapon name");
+        return weapon;
+    }
+
+    /**
+     * Checks whether the name belongs to a weapon. Unlike getWeapon, it does not throw for unknown names.
+     *
+     * @param name any name, e.g. a combobox label text
+     * @return true if there is a weapon with this name, otherwise false
+     */
+    public static boolean isWeaponName(String name) {
+        return lookUpByName(weaponIndex, name) != null;
     }
 
     public static WeaponMaterial getWeaponMaterial(String name) {
-        for (WeaponMaterial weaponMaterial : weaponMaterials) {
-            if (weaponMaterial.name.equalsIgnoreCase(name)) {
-                return weaponMaterial;
-            }
+        WeaponMaterial weaponMaterial = lookUpByName(weaponMaterialIndex, name);
+        if (weaponMaterial == null) {
+            throw new IllegalArgumentException(name + "is not a weapon material name");
         }
-        throw new IllegalArgumentException(name + "is not a weapon material name");
+        return weaponMaterial;
     }
 
     public static TalentMaterial getTalentBook(String name) {
-        for (TalentMaterial talentBook : talentMaterials) {
-            if (talentBook.name.equalsIgnoreCase(name)) {
-                return talentBook;
-            }
+        TalentMaterial talentBook = lookUpByName(talentMaterialIndex, name);
+        if (talentBook == null) {
+            throw new IllegalArgumentException(name + "is not a talent book name");
         }
-        throw new IllegalArgumentException(name + "is not a talent book name");
+        return talentBook;
     }
 
     public static Artifact getArtifact(String name) {
-        for (Artifact artifact : artifacts) {
-            if (artifact.name.equalsIgnoreCase(name)) {
-                return artifact;
-            }
+        Artifact artifact = lookUpByName(artifactIndex, name);
+        if (artifact == null) {
+            throw new IllegalArgumentException(name + "is not an artifact name");
         }
-        throw new IllegalArgumentException(name + "is not an artifact name");
+        return artifact;
     }
 
     public static WeeklyTalentMaterial getWeeklyTalentMaterial(String name) {
-        for (WeeklyTalentMaterial weeklyTalentMaterial : weeklyTalentMaterials) {
-            if (weeklyTalentMaterial.name.equalsIgnoreCase(name)) {
-                return weeklyTalentMaterial;
-            }
+        WeeklyTalentMaterial weeklyTalentMaterial = lookUpByName(weeklyTalentMaterialIndex, name);
+        if (weeklyTalentMaterial == null) {
+            throw new IllegalArgumentException(name + "is not a weekly talent material name");
         }
-        throw new IllegalArgumentException(name + "is not a weekly talent material name");
+        return weeklyTalentMaterial;
     }
 
     public static List<Weapon> lookUpWeapons(WEAPON_RARITY rarity, WEAPON_TYPE type) {
@@ -413,28 +688,35 @@ public class ToolData {
     }
 
     /**
-     * Resize resource icon
+     * Resize resource icon. Resized icons are cached, so only the first call per item and size does any scaling.
      *
-     * @param originalIcon original icon
+     * @param item item with an icon
      * @param size desired size, duh!
-     * @return the resized new icon
+     * @return the resized icon
      */
-    public static ImageIcon getResizedResourceIcon(ImageIcon originalIcon, int size) {
-        return new ImageIcon(originalIcon.getImage().getScaledInstance(size, size, Image.SCALE_SMOOTH));
+    public static ImageIcon getResizedResourceIcon(Item item, int size) {
+        return IconCache.getResizedIcon(item, size);
     }
 
-    private static void fetchIcons() {
-        for (Character character : characters) {
-            character.icon = new ImageIcon(generateResourceIconPath(character, RESOURCE_TYPE.CHARACTER));
-        }
-        for (Weapon weapon : weapons) {
-            weapon.icon = new ImageIcon(generateResourceIconPath(weapon, RESOURCE_TYPE.WEAPON_NAME));
-        }
+    /**
+     * Resize placeholder icon. Resized icons are cached, so only the first call per placeholder and size does any
+     * scaling.
+     *
+     * @param key placeholder icon key
+     * @param size desired size, duh!
+     * @return the resized icon
+     */
+    public static ImageIcon getResizedPlaceholderIcon(String key, int size) {
+        return IconCache.getResizedPlaceholderIcon(key, size);
+    }
+
+    /**
+     * Sorts the materials of every domain into their respective sets (artifacts, talent books etc.).
+     */
+    static void registerMaterials() {
         for (Domain domain : domains) {
             for (FarmableItem material : domain.materials) {
-                RESOURCE_TYPE materialType = RESOURCE_TYPE.byString.get(domain.type);
-                material.icon = new ImageIcon(generateResourceIconPath(material, materialType));
-                switch (materialType) {
+                switch (domain.type) {
                     case ARTIFACT:
                         assert material instanceof Artifact;
                         artifacts.add((Artifact) material);
@@ -454,10 +736,26 @@ public class ToolData {
                 }
             }
         }
+    }
+
+    /**
+     * Decodes the placeholder icons, one task per icon. Icons of the items are decoded on first use by IconCache.
+     *
+     * @param executor executor running the decoding tasks
+     * @return the stage that completes once every placeholder icon is decoded
+     */
+    private static CompletableFuture<Void> fetchIcons(Executor executor) {
+        Map<String, CompletableFuture<ImageIcon>> decodedPlaceholders = new TreeMap<>();
         for (String name : placeholderImageKeys) {
-            placeholderIcons.put(name, new ImageIcon(
-                    Objects.requireNonNull(ToolData.class.getResource("/Files/Images/Placeholders/" + name + ".png"))));
+            decodedPlaceholders.put(name, CompletableFuture.supplyAsync(() -> new ImageIcon(
+                    Objects.requireNonNull(ToolData.class.getResource("/Files/Images/Placeholders/" + name + ".png"))),
+                    executor));
         }
+        return CompletableFuture.allOf(decodedPlaceholders.values().toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            for (Map.Entry<String, CompletableFuture<ImageIcon>> decoded : decodedPlaceholders.entrySet()) {
+                placeholderIcons.put(decoded.getKey(), decoded.getValue().join());
+            }
+        });
     }
 
     public static ImageIcon getPlaceholderIcon(String key) {
@@ -465,32 +763,167 @@ public class ToolData {
         return placeholderIcons.get(key);
     }
 
-    private static void provideMappings() {
+    /**
+     * Resolves the material names of all characters and weapons to the materials and links the materials back to
+     * their users, so the catalog can be navigated without looking up names. Each material also gets the sorted ids
+     * of its users. The name indices and ids have to be assigned.
+     *
+     * @throws IllegalStateException if a character or weapon names a material that is not in the catalog
+     */
+    static void linkCatalog() {
         for (Character character : characters) {
-            getTalentBook(character.talentMaterial).usedBy.add(character.name);
-            getWeeklyTalentMaterial(character.weeklyTalentMaterial).usedBy.add(character.name);
+            TalentMaterial talentBook = lookUpLinked(talentMaterialIndex, character.talentMaterial, character);
+            WeeklyTalentMaterial weeklyBossMaterial =
+                    lookUpLinked(weeklyTalentMaterialIndex, character.weeklyTalentMaterial, character);
+            character.link(talentBook, weeklyBossMaterial);
+            talentBook.usedBy.add(character);
+            weeklyBossMaterial.usedBy.add(character);
         }
         for (Weapon weapon : weapons) {
-            getWeaponMaterial(weapon.ascensionMaterial).usedBy.add(weapon.name);
+            WeaponMaterial ascensionMaterial = lookUpLinked(weaponMaterialIndex, weapon.ascensionMaterial, weapon);
+            weapon.link(ascensionMaterial);
+            ascensionMaterial.usedBy.add(weapon);
+        }
+        for (TalentMaterial talentBook : talentMaterials) {
+            talentBook.setUsedByIds(toSortedIds(talentBook.usedBy));
+        }
+        for (WeeklyTalentMaterial weeklyBossMaterial : weeklyTalentMaterials) {
+            weeklyBossMaterial.setUsedByIds(toSortedIds(weeklyBossMaterial.usedBy));
+        }
+        for (WeaponMaterial weaponMaterial : weaponMaterials) {
+            weaponMaterial.setUsedByIds(toSortedIds(weaponMaterial.usedBy));
+        }
+    }
+
+    private static int[] toSortedIds(List<? extends Item> items) {
+        int[] ids = new int[items.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = items.get(i).getId();
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static <T extends Item> T lookUpLinked(Map<String, T> index, String name, Item user) {
+        T item = lookUpByName(index, name);
+        if (item == null) {
+            throw new IllegalStateException(user.name + " refers to " + name + ", which is not in the catalog");
+        }
+        return item;
+    }
+
+    /**
+     * Records the wall time of a startup phase. The timer starts once the phase is started, i.e. once all of its
+     * inputs are ready.
+     *
+     * @param phase the phase to time
+     * @param phaseStarter starts the phase and returns the stage that completes with it
+     * @return the stage of the phase
+     */
+    private static <T> CompletableFuture<T> timePhase(STARTUP_PHASE phase, Supplier<CompletableFuture<T>> phaseStarter) {
+        long start = System.nanoTime();
+        return phaseStarter.get().whenComplete((ignored, e) -> startupTimings.put(phase, System.nanoTime() - start));
+    }
+
+    private static void printStartupTimings() {
+        StringBuilder report = new StringBuilder("Startup timings (ms):");
+        for (STARTUP_PHASE phase : STARTUP_PHASE.values()) {
+            Long nanos = startupTimings.get(phase);
+            if (nanos != null) {
+                report.append(' ').append(phase.stringToken).append(' ').append(nanos / 1_000_000);
+            }
         }
+        System.out.println(report);
+    }
+
+    private static Path getCatalogSnapshotPath() {
+        return Paths.get(CACHE_LOCATION, CATALOG_SNAPSHOT_FILE_NAME);
     }
 
-    private static void parseData() throws Exception {
-        parseDataJsonFiles();
-        fetchIcons();
-        parseFonts();
-        provideMappings();
+    private static boolean readCatalogSnapshot() {
+        try {
+            return CatalogSnapshot.read(getCatalogSnapshotPath(), CatalogSnapshot.fingerprint(), characters, weapons,
+                    domains);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void writeCatalogSnapshot() {
+        try {
+            CatalogSnapshot.write(getCatalogSnapshotPath(), CatalogSnapshot.fingerprint(), characters, weapons,
+                    domains);
+        } catch (IOException e) {
+            System.out.println("Failed to write the catalog snapshot: " + e.getMessage());
+        }
     }
 
     /**
-     * Main method
+     * Loads the catalog from the binary snapshot if it is up to date, otherwise parses the json files.
+     *
+     * @param executor executor running the loading tasks
+     * @return the stage that completes with true if the catalog was read from the snapshot
+     */
+    private static CompletableFuture<Boolean> loadCatalog(Executor executor) {
+        return CompletableFuture.supplyAsync(ToolData::readCatalogSnapshot, executor).thenCompose(
+                fromSnapshot -> fromSnapshot ? CompletableFuture.completedFuture(true) :
+                        parseDataJsonFiles(executor).thenApply(v -> false));
+    }
+
+    /**
+     * Parses the catalog: characters, weapons and domains (from the snapshot if it is current) and their materials,
+     * and links them to each other. The placeholder icons are decoded at the same time.
+     *
+     * @param executor executor that runs the parsing tasks
+     * @return future that completes when the catalog is ready to be used
+     */
+    private static CompletableFuture<Void> parseCatalog(Executor executor) {
+        CompletableFuture<Boolean> catalogParsed =
+                timePhase(STARTUP_PHASE.CATALOG, () -> loadCatalog(executor)).thenCompose(
+                        fromSnapshot -> timePhase(STARTUP_PHASE.MATERIALS, () -> {
+                            registerMaterials();
+                            buildNameIndices();
+                            assignIds();
+                            return CompletableFuture.completedFuture(fromSnapshot);
+                        }));
+        CompletableFuture<Void> iconsFetched = timePhase(STARTUP_PHASE.ICONS, () -> fetchIcons(executor));
+        CompletableFuture<Void> catalogLinked = catalogParsed.thenCompose(fromSnapshot ->
+                timePhase(STARTUP_PHASE.LINK, () -> {
+                    linkCatalog();
+                    return CompletableFuture.completedFuture(null);
+                }).thenCompose(v -> fromSnapshot ? CompletableFuture.completedFuture(null) :
+                        timePhase(STARTUP_PHASE.SNAPSHOT,
+                                () -> CompletableFuture.runAsync(ToolData::writeCatalogSnapshot, executor))));
+        return CompletableFuture.allOf(iconsFetched, catalogLinked);
+    }
+
+    /**
+     * Main method. Only the fonts are parsed before the window is shown, the catalog is parsed in the background and
+     * the tabs that need it are shown as loading until it is ready.
      *
      * @param args unused
      * @throws Exception thrown exception.
      */
     public static void main(String[] args) throws Exception {
-        parseData();
-        new ToolGUI();
-
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(STARTUP_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "GDApp startup worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<Void> catalogParsed = parseCatalog(executor).whenComplete((v, e) -> {
+            executor.shutdown();
+            startupTimings.put(STARTUP_PHASE.TOTAL, System.nanoTime() - start);
+            printStartupTimings();
+        });
+        try {
+            timePhase(STARTUP_PHASE.FONTS, () -> parseFonts(executor)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+        SwingUtilities.invokeLater(() -> new ToolGUI(catalogParsed));
     }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ public class Weapon extends Item {
     public final String rarity;
     public final String weaponType;
     public final String ascensionMaterial;
+    private WeaponMaterial ascensionMaterialItem;
 
     public Weapon(String weaponName, String weaponRarity, String weaponType, String weaponAscensionMaterial) {
         super(weaponName);
@@ -15,7 +16,25 @@ public class Weapon extends Item {
         ascensionMaterial = weaponAscensionMaterial;
     }
 
+    /**
+     * Returns the ascension material of the weapon. Resolved when the catalog is linked.
+     *
+     * @return weapon material
+     */
+    public WeaponMaterial getAscensionMaterial() {
+        return ascensionMaterialItem;
+    }
+
+    void link(WeaponMaterial ascensionMaterialItem) {
+        this.ascensionMaterialItem = ascensionMaterialItem;
+    }
+
     public void printInfo() {
         System.out.println(name + " " + rarity + " " + weaponType + " " + ascensionMaterial);
     }
+
+    @Override
+    public ToolData.RESOURCE_TYPE getResourceType() {
+        return ToolData.RESOURCE_TYPE.WEAPON_NAME;
+    }
 }
@@ -1,12 +1,35 @@
 package Files.Code.Data;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class WeeklyTalentMaterial extends FarmableItem {
-    public final List<String> usedBy;
+    /**
+     * All characters that use this material. Filled when the catalog is linked.
+     */
+    public final List<Character> usedBy = new ArrayList<>();
+    private int[] usedByIds = new int[0];
 
-    public WeeklyTalentMaterial(String itemName, String availability, List<String> usedBy) {
+    public WeeklyTalentMaterial(String itemName, String availability) {
         super(itemName, availability);
-        this.usedBy = usedBy;
+    }
+
+    /**
+     * Returns the ids of the characters in usedBy, in ascending order. Filled when the catalog is linked, the array
+     * must not be modified.
+     *
+     * @return ids of the characters
+     */
+    public int[] getUsedByIds() {
+        return usedByIds;
+    }
+
+    void setUsedByIds(int[] usedByIds) {
+        this.usedByIds = usedByIds;
+    }
+
+    @Override
+    public ToolData.RESOURCE_TYPE getResourceType() {
+        return ToolData.RESOURCE_TYPE.WEEKLY_BOSS_MATERIAL;
     }
 }
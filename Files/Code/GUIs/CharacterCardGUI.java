@@ -2,11 +2,9 @@ package Files.Code.GUIs;
 
 import static Files.Code.Data.ToolData.artifacts;
 import static Files.Code.Data.ToolData.changeFont;
-import static Files.Code.Data.ToolData.getArtifact;
-import static Files.Code.Data.ToolData.getCharacter;
 import static Files.Code.Data.ToolData.getPlaceholderIcon;
+import static Files.Code.Data.ToolData.getResizedPlaceholderIcon;
 import static Files.Code.Data.ToolData.getResizedResourceIcon;
-import static Files.Code.Data.ToolData.getWeapon;
 import static Files.Code.Data.ToolData.lookUpWeapons;
 import static Files.Code.Data.ToolData.placeholderImageKeys;
 import static Files.Code.GUIs.ToolGUI.CHARACTER_LIMIT;
@@ -24,6 +22,7 @@ import Files.Code.Auxiliary.UpdateCharacterCardComboBoxListener;
 import Files.Code.Auxiliary.UpdateLabelListener;
 import Files.Code.Auxiliary.UpdateTextAreaListener;
 import Files.Code.Auxiliary.WeaponSelectorComboBoxModel;
+import Files.Code.Data.Artifact;
 import Files.Code.Data.Character;
 import Files.Code.Data.CharacterListing;
 import Files.Code.Data.Item;
@@ -47,9 +46,11 @@ import javax.swing.JTextField;
 import javax.swing.border.TitledBorder;
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.Frame;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.awt.event.ActionListener;
 import java.util.List;
 
 /**
@@ -74,11 +75,32 @@ public class CharacterCardGUI extends JFrame {
         setSize(1000, 600);
         setLocationRelativeTo(null);
         setResizable(false);
-        setIconImage(getCharacter(characterListing.getCharacterName()).icon.getImage());
+        setIconImage(characterListing.getCharacter().getIcon().getImage());
         setVisible(true);
 
     }
 
+    /**
+     * Shows the character card in the window of its character, if that window has been opened. Used when the card
+     * has been replaced by one read from the profile.
+     *
+     * @param characterListing the character card
+     */
+    public static void reloadIfOpen(CharacterListing characterListing) {
+        String title = characterListing.getCharacterName() + " Character Overview";
+        for (Frame frame : Frame.getFrames()) {
+            if (frame instanceof CharacterCardGUI && frame.getTitle().equals(title)) {
+                CharacterCardGUI characterCardGUI = (CharacterCardGUI) frame;
+                for (ActionListener listener : characterCardGUI.saveButton.getActionListeners()) {
+                    characterCardGUI.saveButton.removeActionListener(listener);
+                }
+                characterCardGUI.setContentPane(characterCardGUI.generateCharacterPage(characterListing));
+                characterCardGUI.revalidate();
+                characterCardGUI.repaint();
+            }
+        }
+    }
+
     /**
      * Adds allowed weapons (that is, wieldable by the specified character) to the list of options in the weapon combobox.
      *
@@ -88,7 +110,7 @@ public class CharacterCardGUI extends JFrame {
     private void addAllowedWeapons(WeaponSelectorComboBoxModel dcmb, Character character) {
         JLabel label = new JLabel();
         label.setText(EMPTY_WEAPON_SELECTOR);
-        ImageIcon default_img = getResizedResourceIcon(getPlaceholderIcon(placeholderImageKeys[2]), 20);
+        ImageIcon default_img = getResizedPlaceholderIcon(placeholderImageKeys[2], 20);
         label.setIcon(default_img);
         dcmb.addElement(label);
         for (ToolData.WEAPON_RARITY rarity : ToolData.WEAPON_RARITY.values()) {
@@ -107,7 +129,7 @@ public class CharacterCardGUI extends JFrame {
             List<Weapon> weapons = lookUpWeapons(rarity, weaponType);
             for (Weapon weapon : weapons) {
                 label = new JLabel();
-                label.setIcon(getResizedResourceIcon(weapon.icon, 20));
+                label.setIcon(getResizedResourceIcon(weapon, 20));
                 label.setText(weapon.name);
                 dcmb.addElement(label);
             }
@@ -156,7 +178,7 @@ public class CharacterCardGUI extends JFrame {
         changeFont(weaponSelectionBox, ToolData.AVAILABLE_FONTS.HEADER_FONT, 14.0F);
         weaponSelectionBox.setInheritsPopupMenu(false);
         final WeaponSelectorComboBoxModel weaponSelectorComboBoxModel = new WeaponSelectorComboBoxModel();
-        addAllowedWeapons(weaponSelectorComboBoxModel, getCharacter(characterListing.getCharacterName()));
+        addAllowedWeapons(weaponSelectorComboBoxModel, characterListing.getCharacter());
         weaponSelectionBox.setModel(weaponSelectorComboBoxModel);
         weaponSelectionBox.setRenderer(new ComboBoxRenderer(weaponSelectionBox));
         setSelection(weaponSelectionBox, characterListing.getWeapon());
@@ -201,12 +223,12 @@ public class CharacterCardGUI extends JFrame {
         final DefaultComboBoxModel<JLabel> setComboBoxModel = new DefaultComboBoxModel<>();
         JLabel label = new JLabel();
         label.setText(EMPTY_SET_SELECTOR);
-        label.setIcon(getResizedResourceIcon(getPlaceholderIcon("artifact"), 20));
+        label.setIcon(getResizedPlaceholderIcon("artifact", 20));
         setComboBoxModel.addElement(label);
         for (Item artifact : artifacts) {
             label = new JLabel();
             label.setText(artifact.name);
-            label.setIcon(getResizedResourceIcon(artifact.icon, 20));
+            label.setIcon(getResizedResourceIcon(artifact, 20));
             setComboBoxModel.addElement(label);
         }
         setComboBox.setModel(setComboBoxModel);
@@ -249,11 +271,11 @@ public class CharacterCardGUI extends JFrame {
         JLabel weaponIcon = new javax.swing.JLabel();
         weaponIcon.setHorizontalAlignment(4);
         weaponIcon.setHorizontalTextPosition(4);
-        String savedWeaponName = characterListing.getWeapon();
-        if (savedWeaponName.isEmpty()) {
+        Weapon savedWeapon = characterListing.getEquippedWeapon();
+        if (savedWeapon == null) {
             weaponIcon.setIcon(getPlaceholderIcon("weapon"));
         } else {
-            weaponIcon.setIcon(getWeapon(savedWeaponName).icon);
+            weaponIcon.setIcon(savedWeapon.getIcon());
         }
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.gridx = 0;
@@ -277,14 +299,14 @@ public class CharacterCardGUI extends JFrame {
         jpanel.add(charLabel, gbc);
     }
 
-    private JLabel getSetIconLabel(String savedArtifactSetName, JPanel jpanel, GridBagConstraints gbc) {
+    private JLabel getSetIconLabel(Artifact savedArtifactSet, JPanel jpanel, GridBagConstraints gbc) {
         JLabel setIcon = new JLabel();
         setIcon.setHorizontalAlignment(4);
         setIcon.setHorizontalTextPosition(4);
-        if (savedArtifactSetName.isEmpty()) {
+        if (savedArtifactSet == null) {
             setIcon.setIcon(getPlaceholderIcon("artifact"));
         } else {
-            setIcon.setIcon(getArtifact(savedArtifactSetName).icon);
+            setIcon.setIcon(savedArtifactSet.getIcon());
         }
         jpanel.add(setIcon, gbc);
         return setIcon;
@@ -447,16 +469,16 @@ public class CharacterCardGUI extends JFrame {
 
         javax.swing.JLabel weaponJLabel = getWeaponIconLabel(characterListing, templateTab);
 
-        getCharLabel(getCharacter(characterListing.getCharacterName()).icon, templateTab);
+        getCharLabel(characterListing.getCharacter().getIcon(), templateTab);
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.gridx = 0;
         gbc.gridy = 3;
         gbc.weightx = 0.5;
         gbc.anchor = GridBagConstraints.NORTHEAST;
         gbc.insets = new Insets(5, 0, 0, 20);
-        javax.swing.JLabel set1Icon = getSetIconLabel(characterListing.getArtifactSet1(), templateTab, gbc);
+        javax.swing.JLabel set1Icon = getSetIconLabel(characterListing.getEquippedArtifactSet1(), templateTab, gbc);
         gbc.gridy++;
-        javax.swing.JLabel set2Icon = getSetIconLabel(characterListing.getArtifactSet2(), templateTab, gbc);
+        javax.swing.JLabel set2Icon = getSetIconLabel(characterListing.getEquippedArtifactSet2(), templateTab, gbc);
 
         JPanel checkboxAndButtonPanel = getRightPanel(templateTab);
         JCheckBox artifactSet1ListingCheckBox =
@@ -2,7 +2,6 @@ package Files.Code.GUIs;
 
 import static Files.Code.Data.ToolData.changeFont;
 import static Files.Code.Data.ToolData.characters;
-import static Files.Code.Data.ToolData.getCharacter;
 import static Files.Code.Data.ToolData.getPlaceholderIcon;
 import static Files.Code.GUIs.ToolGUI.NO_CHARACTERS_MATCH_MESSAGE;
 import static Files.Code.GUIs.ToolGUI.checkIfCharacterCardHasBeenGenerated;
@@ -13,6 +12,7 @@ import Files.Code.Auxiliary.ComboBoxRenderer;
 import Files.Code.Auxiliary.SearchBarListener;
 import Files.Code.Data.Character;
 import Files.Code.Data.CharacterListing;
+import Files.Code.Data.IconCache;
 import Files.Code.Data.ToolData;
 
 import javax.swing.DefaultComboBoxModel;
@@ -29,7 +29,6 @@ import java.awt.Dimension;
 import java.awt.Frame;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.Image;
 import java.awt.Insets;
 import java.awt.Window;
 import java.awt.event.ActionEvent;
@@ -159,9 +158,8 @@ public final class CharacterTabGUI implements ActionListener {
         final String iconFolderAddress = "/Files/Images/Icons";
         final String[] elements = {"Anemo", "Cryo", "Dendro", "Electro", "Geo", "Hydro", "Pyro"};
         for (String element : elements) {
-            elementIcons.put(element, new ImageIcon(new ImageIcon(Objects.requireNonNull(
-                    ToolData.class.getResource(iconFolderAddress + "/Element_" + element + ".png"))).getImage()
-                    .getScaledInstance(20, 20, Image.SCALE_SMOOTH)));
+            elementIcons.put(element, new ImageIcon(IconCache.scaleImage(new ImageIcon(Objects.requireNonNull(
+                    ToolData.class.getResource(iconFolderAddress + "/Element_" + element + ".png"))).getImage(), 20)));
         }
     }
 
@@ -181,7 +179,7 @@ public final class CharacterTabGUI implements ActionListener {
             characterListing = getCharacterCard(characterName);
         }
         assert characterListing != null;
-        characterButton.setIcon(getCharacter(characterListing.getCharacterName()).icon);
+        characterButton.setIcon(characterListing.getCharacter().getIcon());
         characterButton.setText(formatString(characterName));
         changeFont(characterButton, ToolData.AVAILABLE_FONTS.BLACK_FONT, 12);
         characterButton.setVerticalTextPosition(SwingConstants.BOTTOM);
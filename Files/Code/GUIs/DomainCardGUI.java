@@ -132,7 +132,7 @@ public class DomainCardGUI extends JFrame {
             JPanel dayTab = new JPanel();
             dayTab.setLayout(new GridBagLayout());
             dayTab.setBackground(new Color(-1));
-            itemOverviewTabbedPane.addTab("", domainMat.icon, dayTab, domainMat.name);
+            itemOverviewTabbedPane.addTab("", domainMat.getIcon(), dayTab, domainMat.name);
             JLabel listedWeaponHeadline = new JLabel();
             listedWeaponHeadline.setForeground(new Color(domainTheme.panelForegroundColor));
             if (getDomainTargetResourceType(domainTheme) == ToolData.RESOURCE_TYPE.WEAPON_NAME) {
@@ -182,36 +182,41 @@ public class DomainCardGUI extends JFrame {
 
             int i = 0;
             int k = 0;
-            if (domain.isArtifactDomain()) {
-                for (Item character : whoNeedsThisItem(domain, domainMat, true)) {
-                    assert character instanceof Character;
-                    generateDomainItemLabel(character.name, character.icon, i, innerListedPanel);
-                    i++;
-                }
-            } else if (domain.isWeaponMaterialDomain()) {
-                for (Item weapon : whoNeedsThisItem(domain, domainMat, true)) {
-                    assert weapon instanceof Weapon;
-                    generateDomainItemLabel(weapon.name, weapon.icon, i, innerListedPanel);
-                    i++;
-                }
-                for (Item weapon : whoNeedsThisItem(domain, domainMat, false)) {
-                    assert weapon instanceof Weapon;
-                    generateDomainItemLabel(weapon.name, weapon.icon, k, innerUnlistedPanel);
-                    k++;
-                }
-            } else if (domain.isWeeklyTalentMaterialDomain() || domain.isTalentMaterialDomain()) {
-                for (Item character : whoNeedsThisItem(domain, domainMat, true)) {
-                    assert character instanceof Character;
-                    generateDomainItemLabel(character.name, character.icon, i, innerListedPanel);
-                    i++;
-                }
-                for (Item character : whoNeedsThisItem(domain, domainMat, false)) {
-                    assert character instanceof Character;
-                    generateDomainItemLabel(character.name, character.icon, k, innerUnlistedPanel);
-                    k++;
-                }
-            } else {
-                throw new IllegalArgumentException("The domain type is unknown");
+            switch (domain.type) {
+                case ARTIFACT:
+                    for (Item character : whoNeedsThisItem(domain, domainMat, true)) {
+                        assert character instanceof Character;
+                        generateDomainItemLabel(character.name, character.getIcon(), i, innerListedPanel);
+                        i++;
+                    }
+                    break;
+                case WEAPON_MATERIAL:
+                    for (Item weapon : whoNeedsThisItem(domain, domainMat, true)) {
+                        assert weapon instanceof Weapon;
+                        generateDomainItemLabel(weapon.name, weapon.getIcon(), i, innerListedPanel);
+                        i++;
+                    }
+                    for (Item weapon : whoNeedsThisItem(domain, domainMat, false)) {
+                        assert weapon instanceof Weapon;
+                        generateDomainItemLabel(weapon.name, weapon.getIcon(), k, innerUnlistedPanel);
+                        k++;
+                    }
+                    break;
+                case WEEKLY_BOSS_MATERIAL:
+                case TALENT_BOOK:
+                    for (Item character : whoNeedsThisItem(domain, domainMat, true)) {
+                        assert character instanceof Character;
+                        generateDomainItemLabel(character.name, character.getIcon(), i, innerListedPanel);
+                        i++;
+                    }
+                    for (Item character : whoNeedsThisItem(domain, domainMat, false)) {
+                        assert character instanceof Character;
+                        generateDomainItemLabel(character.name, character.getIcon(), k, innerUnlistedPanel);
+                        k++;
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("The domain type is unknown");
             }
         }
 
@@ -4,8 +4,6 @@ import static Files.Code.Data.ToolData.RESOURCE_TYPE.WEEKLY_BOSS_MATERIAL;
 import static Files.Code.Data.ToolData.changeFont;
 import static Files.Code.Data.ToolData.comparator;
 import static Files.Code.Data.ToolData.domains;
-import static Files.Code.Data.ToolData.getCharacter;
-import static Files.Code.Data.ToolData.getWeapon;
 import static Files.Code.GUIs.DomainTabGUI.DOMAIN_FILTER_OPTIONS.ALL_OPTIONS_BY_ENUM;
 import static Files.Code.GUIs.DomainTabGUI.DOMAIN_FILTER_OPTIONS.ALL_OPTIONS_BY_STRING;
 import static Files.Code.GUIs.DomainTabGUI.DOMAIN_FILTER_OPTIONS.NO_FILTER;
@@ -14,18 +12,14 @@ import static Files.Code.GUIs.ToolGUI.farmedTalentBooks;
 import static Files.Code.GUIs.ToolGUI.farmedWeapons;
 import static Files.Code.GUIs.ToolGUI.farmedWeeklyTalentMaterials;
 import static Files.Code.GUIs.WeaponTabGUI.getUnassignedFarmedWeapons;
-import static java.util.Calendar.FRIDAY;
-import static java.util.Calendar.MONDAY;
-import static java.util.Calendar.SATURDAY;
-import static java.util.Calendar.THURSDAY;
-import static java.util.Calendar.TUESDAY;
-import static java.util.Calendar.WEDNESDAY;
 
 import Files.Code.Auxiliary.ComboBoxRenderer;
+import Files.Code.Auxiliary.FarmedItemMap;
 import Files.Code.Data.Artifact;
 import Files.Code.Data.Character;
 import Files.Code.Data.Domain;
 import Files.Code.Data.FarmableItem;
+import Files.Code.Data.GameClock;
 import Files.Code.Data.Item;
 import Files.Code.Data.TalentMaterial;
 import Files.Code.Data.ToolData;
@@ -39,8 +33,6 @@ import javax.swing.AbstractButton;
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
 import javax.swing.DefaultComboBoxModel;
-import javax.swing.GrayFilter;
-import javax.swing.ImageIcon;
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -55,10 +47,13 @@ import java.awt.Insets;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
-import java.util.Calendar;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
@@ -72,6 +67,7 @@ public class DomainTabGUI implements ActionListener {
     private final JPanel domainTab = new JPanel(new GridBagLayout());
     private final JComboBox<JLabel> filterBox = new JComboBox<>();
     private final JPanel domainsPanelOverview = new JPanel(new GridBagLayout());
+    private boolean filtered;
     private static final JRadioButton wedSatButton = new JRadioButton();
     private static final JRadioButton tueFriButton = new JRadioButton();
     private static final JRadioButton monThuButton = new JRadioButton();
@@ -109,26 +105,50 @@ public class DomainTabGUI implements ActionListener {
         /**
          * Monday/Thursday only
          */
-        MONDAY_THURSDAY("Mon/Thu"),
+        MONDAY_THURSDAY("Mon/Thu", DayOfWeek.MONDAY, DayOfWeek.THURSDAY),
         /**
          * Tuesday/Friday only
          */
-        TUESDAY_FRIDAY("Tues/Fri"),
+        TUESDAY_FRIDAY("Tues/Fri", DayOfWeek.TUESDAY, DayOfWeek.FRIDAY),
         /**
          * Wednesday/Saturday only
          */
-        WEDNESDAY_SATURDAY("Wed/Sat"),
+        WEDNESDAY_SATURDAY("Wed/Sat", DayOfWeek.WEDNESDAY, DayOfWeek.SATURDAY),
         /**
          * Sunday only. (On Sunday, every domain and every material within can be farmed)
          */
-        SUNDAY_ALL("All");
+        SUNDAY_ALL("All", DayOfWeek.SUNDAY);
         /**
          * The string token for the respective enum value.
          */
         public final String stringToken;
+        /**
+         * Days selected by the filter, as a mask of FarmableItem.dayBit values.
+         */
+        public final int days;
 
-        DAY_FILTER(String token) {
+        DAY_FILTER(String token, DayOfWeek... days) {
             stringToken = token;
+            int mask = 0;
+            for (DayOfWeek day : days) {
+                mask |= FarmableItem.dayBit(day);
+            }
+            this.days = mask;
+        }
+
+        /**
+         * Returns the filter selecting a day.
+         *
+         * @param day the day
+         * @return the filter
+         */
+        public static DAY_FILTER ofDay(DayOfWeek day) {
+            for (DAY_FILTER filter : DAY_FILTER.values()) {
+                if ((filter.days & FarmableItem.dayBit(day)) != 0) {
+                    return filter;
+                }
+            }
+            return SUNDAY_ALL;
         }
 
         /**
@@ -196,23 +216,23 @@ public class DomainTabGUI implements ActionListener {
         /**
          * All domains
          */
-        NO_FILTER("All Domains"),
+        NO_FILTER("All Domains", null),
         /**
          * Artifact domains only
          */
-        ARTIFACT("Artifact"),
+        ARTIFACT("Artifact", ToolData.DOMAIN_TYPE.ARTIFACT),
         /**
          * Talent book domains only
          */
-        TALENT("Talent Book"),
+        TALENT("Talent Book", ToolData.DOMAIN_TYPE.TALENT_BOOK),
         /**
          * Weekly boss domains only
          */
-        WEEKLY("Weekly Boss Material"),
+        WEEKLY("Weekly Boss Material", ToolData.DOMAIN_TYPE.WEEKLY_BOSS_MATERIAL),
         /**
          * Weapon material domains only
          */
-        WEAPON_MAT("Weapon Material");
+        WEAPON_MAT("Weapon Material", ToolData.DOMAIN_TYPE.WEAPON_MATERIAL);
         /**
          * Mapping containing all filter options, mapped to their string tokens.
          */
@@ -233,9 +253,14 @@ public class DomainTabGUI implements ActionListener {
          * The string token for every enum
          */
         public final String stringToken;
+        /**
+         * The domain type shown by the filter, or null if all domains are shown
+         */
+        public final ToolData.DOMAIN_TYPE domainType;
 
-        DOMAIN_FILTER_OPTIONS(String stringToken) {
+        DOMAIN_FILTER_OPTIONS(String stringToken, ToolData.DOMAIN_TYPE domainType) {
             this.stringToken = stringToken;
+            this.domainType = domainType;
         }
     }
 
@@ -292,12 +317,13 @@ public class DomainTabGUI implements ActionListener {
         // DAY FILTER BUTTONS
         NavigableSet<DAY_FILTER> dayFilters = DAY_FILTER.ALL_OPTIONS_BY_ENUM.navigableKeySet();
         Iterator<DAY_FILTER> i = dayFilters.iterator();
+        DAY_FILTER todayFilter = getTodayFilter();
         int c = 0;
         for (Enumeration<AbstractButton> it = bg_dayFilter.getElements(); it.hasMoreElements(); ) {
             AbstractButton button = it.nextElement();
             DAY_FILTER f = i.next();
             button.setText(f.stringToken);
-            if (f.stringToken.equalsIgnoreCase(getDayFilterToken())) {
+            if (f == todayFilter) {
                 button.setSelected(true);
                 button.setBackground(new Color(-5275240));
                 button.setForeground(new Color(-1));
@@ -345,18 +371,33 @@ public class DomainTabGUI implements ActionListener {
         showListedButton.addActionListener(this);
     }
 
-    private String getDayFilter() {
+    /**
+     * Repeats the last filtering, so the shown domains reflect the current farmed items. Nothing is shown if there
+     * has been no filtering yet.
+     */
+    void refresh() {
+        if (filtered) {
+            actionPerformed(null);
+        }
+    }
+
+    private DAY_FILTER getDayFilter() {
         for (Enumeration<AbstractButton> it = bg_dayFilter.getElements(); it.hasMoreElements(); ) {
             AbstractButton button = it.nextElement();
             if (button.getModel() == bg_dayFilter.getSelection()) {
-                return button.getText();
+                for (DAY_FILTER filter : DAY_FILTER.values()) {
+                    if (filter.stringToken.equals(button.getText())) {
+                        return filter;
+                    }
+                }
             }
         }
-        return allButton.getText();
+        return DAY_FILTER.SUNDAY_ALL;
     }
 
-    private void parseFilter(DOMAIN_FILTER_OPTIONS filter, String dayFilter, boolean status) {
+    private void parseFilter(DOMAIN_FILTER_OPTIONS filter, DAY_FILTER dayFilter, boolean status) {
         Set<Domain> filteredDomains = new TreeSet<>(ToolData.comparator);
+        filtered = true;
         domainsPanelOverview.removeAll();
         domainsPanelOverview.updateUI();
         int i = 0;
@@ -365,7 +406,7 @@ public class DomainTabGUI implements ActionListener {
             filteredDomains = domains;
         } else {
             for (Domain domain : domains) {
-                if (domain.type.equalsIgnoreCase(filter.stringToken)) {
+                if (domain.type == filter.domainType) {
                     filteredDomains.add(domain);
                 }
             }
@@ -391,7 +432,41 @@ public class DomainTabGUI implements ActionListener {
      * @return true if something is farmed, false if not.
      */
     public static boolean isSomethingFarmedInThisDomain(Domain domain) {
-        return !whoNeedsThisDomain(domain, true).isEmpty();
+        for (FarmableItem material : domain.materials) {
+            if (domain.isWeaponMaterialDomain()) {
+                for (Weapon weapon : ((WeaponMaterial) material).usedBy) {
+                    if (isListedWeapon(weapon)) {
+                        return true;
+                    }
+                }
+            } else if (countListed(domain, material) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isListedWeapon(Weapon weapon) {
+        return farmedWeapons.isFarmed(weapon) || getUnassignedFarmedWeapons().contains(weapon);
+    }
+
+    /**
+     * Counts the characters farming a material of a character domain.
+     *
+     * @param domain talent, weekly boss or artifact domain
+     * @param material material of the domain
+     * @return number of characters
+     */
+    private static int countListed(Domain domain, FarmableItem material) {
+        switch (domain.type) {
+            case WEEKLY_BOSS_MATERIAL:
+                return farmedWeeklyTalentMaterials.countFarming((WeeklyTalentMaterial) material);
+            case TALENT_BOOK:
+                return farmedTalentBooks.countFarming((TalentMaterial) material);
+            case ARTIFACT:
+                return farmedArtifacts.countFarming((Artifact) material);
+        }
+        throw new IllegalArgumentException("Unknown domain type");
     }
 
     /**
@@ -401,20 +476,20 @@ public class DomainTabGUI implements ActionListener {
      * @return domain theme
      */
     public static DOMAIN_THEME getDomainTheme(Domain domain) {
-        if (domain.isArtifactDomain()) {
-            return DOMAIN_THEME.ARTIFACT_DOMAIN_THEME;
-        } else if (domain.isTalentMaterialDomain()) {
-            return DOMAIN_THEME.TALENT_BOOK_THEME;
-        } else if (domain.isWeaponMaterialDomain()) {
-            return DOMAIN_THEME.WEAPON_MATERIAL_THEME;
-        } else if (domain.isWeeklyTalentMaterialDomain()) {
-            return DOMAIN_THEME.WEEKLY_BOSS_DOMAIN_THEME;
-        } else {
-            throw new IllegalArgumentException("Unknown domain type");
+        switch (domain.type) {
+            case ARTIFACT:
+                return DOMAIN_THEME.ARTIFACT_DOMAIN_THEME;
+            case TALENT_BOOK:
+                return DOMAIN_THEME.TALENT_BOOK_THEME;
+            case WEAPON_MATERIAL:
+                return DOMAIN_THEME.WEAPON_MATERIAL_THEME;
+            case WEEKLY_BOSS_MATERIAL:
+                return DOMAIN_THEME.WEEKLY_BOSS_DOMAIN_THEME;
         }
+        throw new IllegalArgumentException("Unknown domain type");
     }
 
-    private JPanel generateDomainCard(Domain domain, String dayFilter) {
+    private JPanel generateDomainCard(Domain domain, DAY_FILTER dayFilter) {
         DOMAIN_THEME dt = getDomainTheme(domain);
         JPanel domainCard = new JPanel(new GridBagLayout());
         domainCard.setBackground(new Color(dt.panelBackgroundColor));
@@ -425,11 +500,10 @@ public class DomainTabGUI implements ActionListener {
 
             JLabel materialIconLabel = new JLabel();
 
-            if (dayFilter.equalsIgnoreCase(DAY_FILTER.SUNDAY_ALL.stringToken) || !domain.rotates ||
-                    item.availability.equalsIgnoreCase(dayFilter)) {
-                materialIconLabel.setIcon(item.icon);
+            if (!domain.rotates || item.isAvailableOnAny(dayFilter.days)) {
+                materialIconLabel.setIcon(item.getIcon());
             } else {
-                materialIconLabel.setIcon(new ImageIcon(GrayFilter.createDisabledImage(item.icon.getImage())));
+                materialIconLabel.setIcon(item.getDisabledIcon());
             }
             materialIconLabel.setToolTipText(item.name);
             materialIconLabel.setText("");
@@ -552,49 +626,40 @@ public class DomainTabGUI implements ActionListener {
      * @return set of items
      */
     public static Set<? extends Item> whoNeedsThisDomain(Domain domain, boolean farmedOnly) {
-        if (domain.isWeaponMaterialDomain()) {
-            Set<Weapon> possibleWeapons = new HashSet<>();
-            for (FarmableItem weaponMaterial : domain.materials) {
-                assert weaponMaterial instanceof WeaponMaterial;
-                for (String weaponName : ((WeaponMaterial) weaponMaterial).usedBy) {
-                    Weapon weapon = getWeapon(weaponName);
-                    if (!farmedOnly || !farmedWeapons.get(weapon).isEmpty() ||
-                            getUnassignedFarmedWeapons().contains(weapon)) {
-                        possibleWeapons.add(weapon);
+        BitSet possibleCharacters = new BitSet();
+        switch (domain.type) {
+            case WEAPON_MATERIAL:
+                Set<Weapon> possibleWeapons = new HashSet<>();
+                for (FarmableItem weaponMaterial : domain.materials) {
+                    assert weaponMaterial instanceof WeaponMaterial;
+                    for (Weapon weapon : ((WeaponMaterial) weaponMaterial).usedBy) {
+                        if (!farmedOnly || isListedWeapon(weapon)) {
+                            possibleWeapons.add(weapon);
+                        }
                     }
                 }
-            }
-            return possibleWeapons;
-        } else if (domain.isWeeklyTalentMaterialDomain()) {
-            Set<Character> possibleCharacters = new HashSet<>();
-            for (FarmableItem weeklyTalentMaterial : domain.materials) {
-                assert weeklyTalentMaterial instanceof WeeklyTalentMaterial;
-                if (!farmedOnly || !farmedWeeklyTalentMaterials.get(weeklyTalentMaterial).isEmpty()) {
-                    possibleCharacters.addAll(farmedWeeklyTalentMaterials.get(weeklyTalentMaterial));
+                return possibleWeapons;
+            case WEEKLY_BOSS_MATERIAL:
+                for (FarmableItem weeklyTalentMaterial : domain.materials) {
+                    assert weeklyTalentMaterial instanceof WeeklyTalentMaterial;
+                    farmedWeeklyTalentMaterials.collectFarming((WeeklyTalentMaterial) weeklyTalentMaterial,
+                            possibleCharacters);
                 }
-            }
-            return possibleCharacters;
-        } else if (domain.isTalentMaterialDomain()) {
-            Set<Character> possibleCharacters = new HashSet<>();
-            for (FarmableItem talentMaterial : domain.materials) {
-                assert talentMaterial instanceof TalentMaterial;
-                if (!farmedOnly || !farmedTalentBooks.get(talentMaterial).isEmpty()) {
-                    possibleCharacters.addAll(farmedTalentBooks.get(talentMaterial));
+                return FarmedItemMap.toCharacters(possibleCharacters);
+            case TALENT_BOOK:
+                for (FarmableItem talentMaterial : domain.materials) {
+                    assert talentMaterial instanceof TalentMaterial;
+                    farmedTalentBooks.collectFarming((TalentMaterial) talentMaterial, possibleCharacters);
                 }
-            }
-            return possibleCharacters;
-        } else if (domain.isArtifactDomain()) {
-            Set<Character> possibleCharacters = new HashSet<>();
-            for (FarmableItem artifact : domain.materials) {
-                assert artifact instanceof Artifact;
-                if (!farmedOnly || !farmedArtifacts.get(artifact).isEmpty()) {
-                    possibleCharacters.addAll(farmedArtifacts.get(artifact));
+                return FarmedItemMap.toCharacters(possibleCharacters);
+            case ARTIFACT:
+                for (FarmableItem artifact : domain.materials) {
+                    assert artifact instanceof Artifact;
+                    farmedArtifacts.collectFarming((Artifact) artifact, possibleCharacters);
                 }
-            }
-            return possibleCharacters;
-        } else {
-            throw new IllegalArgumentException();
+                return FarmedItemMap.toCharacters(possibleCharacters);
         }
+        throw new IllegalArgumentException();
     }
 
     /**
@@ -607,71 +672,85 @@ public class DomainTabGUI implements ActionListener {
      */
     public static Set<? extends Item> whoNeedsThisItem(Domain domain, FarmableItem item, boolean farmedOnly) {
         assert domain.materials.contains(item);
-        if (domain.isWeaponMaterialDomain()) {
-
-            assert item instanceof WeaponMaterial;
-
-            Set<Weapon> allPossibleWeapons = new TreeSet<>(comparator);
-            Set<Weapon> allListedWeapons = new TreeSet<>(comparator);
-
-            for (String weaponName : ((WeaponMaterial) item).usedBy) {
-                Weapon weapon = getWeapon(weaponName);
-                if (!farmedWeapons.get(weapon).isEmpty() || getUnassignedFarmedWeapons().contains(weapon)) {
-                    allListedWeapons.add(weapon);
+        switch (domain.type) {
+            case WEAPON_MATERIAL:
+                assert item instanceof WeaponMaterial;
+                Set<Weapon> weapons = new LinkedHashSet<>();
+                for (int id : selectIds(((WeaponMaterial) item).getUsedByIds(), getListedWeaponIds(), farmedOnly)) {
+                    weapons.add(ToolData.getWeapon(id));
                 }
-            }
-            for (String weaponName : ((WeaponMaterial) item).usedBy) {
-                Weapon weapon = getWeapon(weaponName);
-                allPossibleWeapons.add(weapon);
-            }
-
-            if (farmedOnly) {
-                return allListedWeapons;
-            } else {
-                allPossibleWeapons.removeAll(allListedWeapons);
-                return allPossibleWeapons;
-            }
-
-        } else if (domain.isWeeklyTalentMaterialDomain()) {
-            Set<Character> possibleCharacters = new HashSet<>();
-            assert item instanceof WeeklyTalentMaterial;
-
-            if (farmedOnly) {
-                possibleCharacters.addAll(farmedWeeklyTalentMaterials.get(item));
-            } else {
-                for (String characterName : ((WeeklyTalentMaterial) item).usedBy) {
-                    Character character = getCharacter(characterName);
-                    if (!farmedWeeklyTalentMaterials.get(item).contains(character)) {
-                        possibleCharacters.add(getCharacter(characterName));
-                    }
+                return weapons;
+            case WEEKLY_BOSS_MATERIAL:
+                assert item instanceof WeeklyTalentMaterial;
+                WeeklyTalentMaterial weeklyTalentMaterial = (WeeklyTalentMaterial) item;
+                if (farmedOnly) {
+                    return farmedWeeklyTalentMaterials.getFarming(weeklyTalentMaterial);
                 }
-            }
-            return possibleCharacters;
-        } else if (domain.isTalentMaterialDomain()) {
-            Set<Character> possibleCharacters = new HashSet<>();
-            assert item instanceof TalentMaterial;
-            if (farmedOnly) {
-                possibleCharacters.addAll(farmedTalentBooks.get(item));
-            } else {
-                for (String characterName : ((TalentMaterial) item).usedBy) {
-                    Character character = getCharacter(characterName);
-                    if (!farmedTalentBooks.get(item).contains(character)) {
-                        possibleCharacters.add(getCharacter(characterName));
-                    }
+                return toCharacters(selectIds(weeklyTalentMaterial.getUsedByIds(),
+                        farmedWeeklyTalentMaterials.getFarmingIds(weeklyTalentMaterial), false));
+            case TALENT_BOOK:
+                assert item instanceof TalentMaterial;
+                TalentMaterial talentMaterial = (TalentMaterial) item;
+                if (farmedOnly) {
+                    return farmedTalentBooks.getFarming(talentMaterial);
+                }
+                return toCharacters(selectIds(talentMaterial.getUsedByIds(),
+                        farmedTalentBooks.getFarmingIds(talentMaterial), false));
+            case ARTIFACT:
+                assert item instanceof Artifact;
+                if (farmedOnly) {
+                    return farmedArtifacts.getFarming((Artifact) item);
                 }
-            }
-            return possibleCharacters;
-        } else if (domain.isArtifactDomain()) {
-            assert item instanceof Artifact;
-            if (farmedOnly) {
-                return farmedArtifacts.get(item);
-            } else {
                 throw new IllegalArgumentException(
                         "There is no point in listing all characters for an artifact domain, anyone can equip any set.");
+        }
+        throw new IllegalArgumentException("Unknown domain as parameter in whoNeedsThisDomain");
+    }
+
+    /**
+     * Returns the ids of all listed weapons, i.e. the weapons listed for a character and the unassigned ones.
+     *
+     * @return the ids, in ascending order
+     */
+    private static int[] getListedWeaponIds() {
+        BitSet listedWeapons = new BitSet();
+        farmedWeapons.collectFarmedItems(listedWeapons);
+        for (Weapon weapon : getUnassignedFarmedWeapons()) {
+            listedWeapons.set(weapon.getId());
+        }
+        return listedWeapons.stream().toArray();
+    }
+
+    /**
+     * Selects the users of a material that are listed, or the ones that are not, by merging the two ascending id
+     * arrays in a single pass.
+     *
+     * @param userIds ids of the users of the material, in ascending order
+     * @param listedIds ids of the listed items, in ascending order
+     * @param listed true to select the listed users, false to select the others
+     * @return the selected ids, in ascending order
+     */
+    static int[] selectIds(int[] userIds, int[] listedIds, boolean listed) {
+        int[] selected = new int[userIds.length];
+        int count = 0;
+        int j = 0;
+        for (int userId : userIds) {
+            while (j < listedIds.length && listedIds[j] < userId) {
+                j++;
+            }
+            if ((j < listedIds.length && listedIds[j] == userId) == listed) {
+                selected[count++] = userId;
             }
-        } else {
-            throw new IllegalArgumentException("Unknown domain as parameter in whoNeedsThisDomain");
         }
+        return Arrays.copyOf(selected, count);
+    }
+
+    private static Set<Character> toCharacters(int[] characterIds) {
+        Set<Character> characters = new LinkedHashSet<>();
+        for (int id : characterIds) {
+            characters.add(ToolData.getCharacter(id));
+        }
+        return characters;
     }
 
     /**
@@ -684,10 +763,22 @@ public class DomainTabGUI implements ActionListener {
     public static String getAllCounterLabel(Domain domain) {
         int counter = 0;
         for (FarmableItem material : domain.materials) {
-            if (!domain.isArtifactDomain()) {
-                counter += whoNeedsThisItem(domain, material, false).size();
+            // Everyone who needs a material is either listed or unlisted, except for artifacts, which only count the
+            // listed characters.
+            switch (domain.type) {
+                case WEAPON_MATERIAL:
+                    counter += ((WeaponMaterial) material).usedBy.size();
+                    break;
+                case WEEKLY_BOSS_MATERIAL:
+                    counter += ((WeeklyTalentMaterial) material).usedBy.size();
+                    break;
+                case TALENT_BOOK:
+                    counter += ((TalentMaterial) material).usedBy.size();
+                    break;
+                default:
+                    counter += countListed(domain, material);
+                    break;
             }
-            counter += whoNeedsThisItem(domain, material, true).size();
         }
         return "<html>" + "All" + " " + (domain.isWeaponMaterialDomain() ? "weapons" : "characters") + " " +
                 "that need it: " + "<u>" + counter + "</u>" + "</html>";
@@ -704,7 +795,8 @@ public class DomainTabGUI implements ActionListener {
     public static String getListedCounterLabel(Domain domain) {
         int counter = 0;
         for (FarmableItem material : domain.materials) {
-            counter += whoNeedsThisItem(domain, material, true).size();
+            counter += domain.isWeaponMaterialDomain() ? whoNeedsThisItem(domain, material, true).size() :
+                    countListed(domain, material);
         }
         return "<html>" + "Listed" + " " + (domain.isWeaponMaterialDomain() ? "weapons" : "characters") + ":" + " " +
                 "<u>" + counter + "</u>" + "</html>";
@@ -720,29 +812,11 @@ public class DomainTabGUI implements ActionListener {
     }
 
     /**
-     * Returns a day filter string token based on the current system day.
+     * Returns the day filter of the current day of the game (see GameClock).
      *
-     * @return day filter string.
+     * @return day filter
      */
-    public static String getDayFilterToken() {
-        Calendar currentTime = Calendar.getInstance();
-        int currentHour = currentTime.get(Calendar.HOUR_OF_DAY);
-        int currentDay = currentTime.get(Calendar.DAY_OF_WEEK);
-        if (currentHour < 4) {
-            currentDay = (currentDay - 1) % 7;
-        }
-        switch (currentDay) {
-            case MONDAY:
-            case THURSDAY:
-                return DAY_FILTER.MONDAY_THURSDAY.stringToken;
-            case TUESDAY:
-            case FRIDAY:
-                return DAY_FILTER.TUESDAY_FRIDAY.stringToken;
-            case WEDNESDAY:
-            case SATURDAY:
-                return DAY_FILTER.WEDNESDAY_SATURDAY.stringToken;
-            default:
-                return DAY_FILTER.SUNDAY_ALL.stringToken;
-        }
+    public static DAY_FILTER getTodayFilter() {
+        return DAY_FILTER.ofDay(GameClock.getGameDay());
     }
 }
@@ -1,29 +1,25 @@
 package Files.Code.GUIs;
 
-import static Files.Code.Data.ToolData.SAVE_LOCATION;
 import static Files.Code.Data.ToolData.artifacts;
 import static Files.Code.Data.ToolData.changeFont;
-import static Files.Code.Data.ToolData.getArtifact;
-import static Files.Code.Data.ToolData.getCharacter;
-import static Files.Code.Data.ToolData.getTalentBook;
-import static Files.Code.Data.ToolData.getWeapon;
-import static Files.Code.Data.ToolData.getWeeklyTalentMaterial;
 import static Files.Code.Data.ToolData.talentMaterials;
 import static Files.Code.Data.ToolData.weapons;
 import static Files.Code.Data.ToolData.weeklyTalentMaterials;
 import static Files.Code.GUIs.WeaponTabGUI.getUnassignedFarmedWeapons;
 
-import Files.Code.Auxiliary.ItemComparator;
+import Files.Code.Auxiliary.FarmedItemMap;
 import Files.Code.Data.Artifact;
 import Files.Code.Data.Character;
 import Files.Code.Data.CharacterListing;
 import Files.Code.Data.Item;
+import Files.Code.Data.ProfileArchive;
+import Files.Code.Data.ProfileSaveQueue;
+import Files.Code.Data.ProfileStore;
+import Files.Code.Data.ProfileWatcher;
 import Files.Code.Data.TalentMaterial;
 import Files.Code.Data.ToolData;
 import Files.Code.Data.Weapon;
 import Files.Code.Data.WeeklyTalentMaterial;
-import com.google.gson.Gson;
-import com.google.gson.stream.JsonReader;
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
 import com.intellij.uiDesigner.core.Spacer;
@@ -31,10 +27,17 @@ import com.intellij.uiDesigner.core.Spacer;
 import javax.swing.ImageIcon;
 import javax.swing.JComponent;
 import javax.swing.JFrame;
+import javax.swing.JFileChooser;
 import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JTabbedPane;
 import javax.swing.JTextPane;
+import javax.swing.SwingUtilities;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.plaf.FontUIResource;
 import javax.swing.text.StyleContext;
 import java.awt.Color;
@@ -43,17 +46,17 @@ import java.awt.Font;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeMap;
-import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 /**
  * This class generates the main application window.
@@ -94,24 +97,24 @@ public class ToolGUI extends JFrame {
     /**
      * This mapping contains all farmed weapons from all saved characters. Note that weapons unassigned to characters are not put into this mapping.
      */
-    public static final TreeMap<Weapon, Set<Character>> farmedWeapons = new TreeMap<>(new ItemComparator());
+    public static final FarmedItemMap<Weapon> farmedWeapons = new FarmedItemMap<>();
     /**
      * This mapping contains all farmed artifact sets from all saved characters.
      */
-    public static final TreeMap<Artifact, Set<Character>> farmedArtifacts = new TreeMap<>(new ItemComparator());
+    public static final FarmedItemMap<Artifact> farmedArtifacts = new FarmedItemMap<>();
     /**
      * This mapping contains all farmed talent book names.
      */
-    public static final TreeMap<TalentMaterial, Set<Character>> farmedTalentBooks = new TreeMap<>(new ItemComparator());
+    public static final FarmedItemMap<TalentMaterial> farmedTalentBooks = new FarmedItemMap<>();
     /**
      * This mapping contains all weekly talent materials.
      */
-    public static final TreeMap<WeeklyTalentMaterial, Set<Character>> farmedWeeklyTalentMaterials =
-            new TreeMap<>(new ItemComparator());
+    public static final FarmedItemMap<WeeklyTalentMaterial> farmedWeeklyTalentMaterials = new FarmedItemMap<>();
+    /**
+     * Text of the tabs that wait for the data to be loaded.
+     */
+    private static final String LOADING_MESSAGE = "Loading...";
     private static final List<CharacterListing> characterListings = new ArrayList<>();
-    private static final CharacterTabGUI _characterTabGUI = new CharacterTabGUI();
-    private static final WeaponTabGUI _weaponsTabGUI = new WeaponTabGUI();
-    private static final DomainTabGUI _domainTabGUI = new DomainTabGUI();
     private JPanel mainPanel;
     private JTabbedPane mainTabbedPane;
     private JPanel mainInformationPanel;
@@ -127,11 +130,17 @@ public class ToolGUI extends JFrame {
     private JPanel devBasicInfoSpacer;
     private JTextPane devInfoTextPane;
     private JPanel welcomeTab;
+    private WeaponTabGUI weaponTab;
+    private DomainTabGUI domainTab;
+    private JMenu profileMenu;
 
     /**
-     * Constructor of the GUI class.
+     * Constructor of the GUI class. The window is shown right away, the tabs that need the catalog or the saved data
+     * are shown as loading until both have been read.
+     *
+     * @param catalogParsed future that completes when the catalog has been parsed
      */
-    public ToolGUI() {
+    public ToolGUI(CompletableFuture<Void> catalogParsed) {
         $$$setupUI$$$();
         changeFont(mainTabbedPane, ToolData.AVAILABLE_FONTS.HEADER_FONT, 20.0F);
         changeFont(devWelcomeLabel, ToolData.AVAILABLE_FONTS.HEADER_FONT, 20.0F);
@@ -143,9 +152,10 @@ public class ToolGUI extends JFrame {
         devInfoTextPane.setText(
                 "This is a personal project to make our daily tasks a little bit more coordinated! Here's how to get started!\n\n -\uD83D\uDD38✨ Character Tab ✨\uD83D\uDD38-\n- Search by name or filter\n- Fill in the desired information (2nd artifact set is optional).\n- Checkboxes exist for characters to show up in the domains tab. Unchecking will hide a character from its chosen materials, making it easier to tell who still needs those materials. For example, if a character is done with its talents, you should uncheck the character.\n- DON'T FORGET TO SAVE\n\n\uD83D\uDD38✨ Weapon Tab ✨\uD83D\uDD38-\n Search by name or filter.\n- Only checkboxes appear. Checking a weapon will make it show up in farmed items in domains.\n- If a weapon is already listed through a character, it will be marked as \"Already Farmed\".\n\n-\uD83D\uDD38✨ Domains Tab ✨\uD83D\uDD38-\n- Search by filter or day. Results will be shown for today by default.\n- The chosen domain will show all characters/weapons checked in other tabs.");
 
-        addTab("Characters", _characterTabGUI.getMainPanel());
-        addTab("Weapons", _weaponsTabGUI.getMainPanel());
-        addTab("Domains", _domainTabGUI.getMainPanel());
+        addTab("Characters", createLoadingPanel());
+        addTab("Weapons", createLoadingPanel());
+        addTab("Domains", createLoadingPanel());
+        setJMenuBar(createMenuBar());
         setContentPane(mainPanel);
         setTitle("Genshin Domain App v.1.4");
         setDefaultCloseOperation(EXIT_ON_CLOSE);
@@ -155,6 +165,25 @@ public class ToolGUI extends JFrame {
                 ToolGUI.class.getResource("/Files/Images/Icons/Program_Icon_Barbara.png"))).getImage());
         setResizable(false);
         setVisible(true);
+
+        catalogParsed.thenRunAsync(ToolGUI::readSavedData).whenComplete((v, e) -> SwingUtilities.invokeLater(() -> {
+            if (e != null) {
+                showLoadingError(e instanceof CompletionException ? e.getCause() : e);
+                return;
+            }
+            replaceLoadingTab("Characters", () -> new CharacterTabGUI().getMainPanel());
+            replaceLoadingTab("Weapons", () -> {
+                weaponTab = new WeaponTabGUI();
+                return weaponTab.getMainPanel();
+            });
+            replaceLoadingTab("Domains", () -> {
+                domainTab = new DomainTabGUI();
+                return domainTab.getMainPanel();
+            });
+            ProfileWatcher.start(changedListings -> SwingUtilities.invokeLater(
+                    () -> applyProfileChanges(changedListings)));
+            profileMenu.setEnabled(true);
+        }));
     }
 
     /**
@@ -173,7 +202,7 @@ public class ToolGUI extends JFrame {
      * @return true, if the weapon was listed for one of the characters.
      */
     public static boolean isSomeoneFarmingForTheWeapon(Weapon weapon) {
-        return !farmedWeapons.get(weapon).isEmpty();
+        return farmedWeapons.isFarmed(weapon);
     }
 
     /**
@@ -193,35 +222,20 @@ public class ToolGUI extends JFrame {
             case WEAPON:
             case FARMING_WEAPON_MATERIALS:
                 assert item instanceof Weapon;
-                if (status) {
-                    farmedWeapons.get(item).add(getCharacter(characterListing.getCharacterName()));
-                } else {
-                    farmedWeapons.get(item).remove(getCharacter(characterListing.getCharacterName()));
-                }
+                farmedWeapons.update((Weapon) item, characterListing.getCharacter(), status);
                 break;
             case SET_ONE:
             case SET_TWO:
                 assert item instanceof Artifact;
-                if (status) {
-                    farmedArtifacts.get(item).add(getCharacter(characterListing.getCharacterName()));
-                } else {
-                    farmedArtifacts.get(item).remove(getCharacter(characterListing.getCharacterName()));
-                }
+                farmedArtifacts.update((Artifact) item, characterListing.getCharacter(), status);
                 break;
             case FARMING_TALENT_MATERIALS:
                 if (item instanceof TalentMaterial) {
-                    if (status) {
-                        farmedTalentBooks.get(item).add(getCharacter(characterListing.getCharacterName()));
-                    } else {
-                        farmedTalentBooks.get(item).remove(getCharacter(characterListing.getCharacterName()));
-                    }
+                    farmedTalentBooks.update((TalentMaterial) item, characterListing.getCharacter(), status);
                     break;
                 } else if (item instanceof WeeklyTalentMaterial) {
-                    if (status) {
-                        farmedWeeklyTalentMaterials.get(item).add(getCharacter(characterListing.getCharacterName()));
-                    } else {
-                        farmedWeeklyTalentMaterials.get(item).remove(getCharacter(characterListing.getCharacterName()));
-                    }
+                    farmedWeeklyTalentMaterials.update((WeeklyTalentMaterial) item, characterListing.getCharacter(),
+                            status);
                     break;
                 } else {
                     throw new IllegalArgumentException("This item " + item.name + " is of an illegal data type");
@@ -234,20 +248,12 @@ public class ToolGUI extends JFrame {
     }
 
     /**
-     * Saves the unassigned weapons into a json file.
+     * Saves the unassigned weapons into the profile. The profile is written in the background, so that several
+     * changes in a row are written at once.
      */
     public static void serializeSave() {
-        Gson gson = new Gson();
-        File f = new File(SAVE_LOCATION + WEAPON_SAVE_FILE_NAME);
-        try {
-            f.createNewFile();
-            FileWriter fd = new FileWriter(f);
-            gson.toJson(getUnassignedFarmedWeapons(), fd);
-            fd.flush();
-            fd.close();
-        } catch (IOException e) {
-            System.out.println("Failed to save weapons, please try again");
-        }
+        ProfileStore.setWeapons(getUnassignedFarmedWeapons());
+        ProfileSaveQueue.requestSave();
     }
 
     /**
@@ -327,68 +333,244 @@ public class ToolGUI extends JFrame {
     private void createUIComponents() {
         //Place custom component creation code here
         mainPanel = new JPanel();
+    }
+
+    /**
+     * Reads everything saved in previous sessions. Must only be called once the catalog has been parsed.
+     */
+    private static void readSavedData() {
         initialiseFarmedArrays();
+        try {
+            ProfileStore.load();
+        } catch (IOException e) {
+            System.out.println("Could not read the saved profile: " + e.getMessage());
+        }
         readGeneratedCharacterCards();
+        WeaponTabGUI.parseWeaponsMap();
     }
 
-    private void initialiseFarmedArrays() {
-        for (TalentMaterial talentBook : talentMaterials) {
-            farmedTalentBooks.put(talentBook, new TreeSet<>(new ItemComparator()));
+    private static void initialiseFarmedArrays() {
+        farmedTalentBooks.reset(talentMaterials.size());
+        farmedWeeklyTalentMaterials.reset(weeklyTalentMaterials.size());
+        farmedArtifacts.reset(artifacts.size());
+        farmedWeapons.reset(weapons.size());
+    }
+
+    private void addTab(String title, JPanel jpanel) {
+        mainTabbedPane.addTab(title, jpanel);
+    }
+
+    private JPanel createLoadingPanel() {
+        JPanel loadingPanel = new JPanel(new GridBagLayout());
+        JLabel loadingLabel = new JLabel(LOADING_MESSAGE);
+        changeFont(loadingLabel, ToolData.AVAILABLE_FONTS.HEADER_FONT, 20.0F);
+        loadingPanel.add(loadingLabel);
+        return loadingPanel;
+    }
+
+    /**
+     * Replaces the loading panel of a tab. Every tab is generated in its own event, so the window stays responsive
+     * between them.
+     *
+     * @param title title of the tab
+     * @param panelFactory generates the panel of the tab
+     */
+    private void replaceLoadingTab(String title, Supplier<JPanel> panelFactory) {
+        SwingUtilities.invokeLater(() -> mainTabbedPane.setComponentAt(mainTabbedPane.indexOfTab(title),
+                panelFactory.get()));
+    }
+
+    private void showLoadingError(Throwable cause) {
+        System.out.println("Failed to load the data: " + cause);
+        for (int i = 0; i < mainTabbedPane.getTabCount(); i++) {
+            if (mainTabbedPane.getComponentAt(i) != welcomeTab) {
+                JLabel errorLabel = new JLabel("Failed to load the data, please restart the application.");
+                changeFont(errorLabel, ToolData.AVAILABLE_FONTS.TEXT_FONT, 12.0F);
+                JPanel errorPanel = new JPanel(new GridBagLayout());
+                errorPanel.add(errorLabel);
+                mainTabbedPane.setComponentAt(i, errorPanel);
+            }
         }
-        for (WeeklyTalentMaterial weeklyMat : weeklyTalentMaterials) {
-            farmedWeeklyTalentMaterials.put(weeklyMat, new TreeSet<>(new ItemComparator()));
+    }
+
+    /**
+     * Reads character cards that have been saved in previous sessions from the profile and adds them to the farmed
+     * maps.
+     */
+    private static void readGeneratedCharacterCards() {
+        for (CharacterListing card : ProfileStore.getCharacterListings()) {
+            characterListings.add(card);
+            updateFarmedItemMaps(card, true);
+        }
+    }
+
+    /**
+     * Adds all items farmed by a character card to the farmed maps, or removes them.
+     *
+     * @param card   the character card
+     * @param status true to add the items, false to remove them
+     */
+    private static void updateFarmedItemMaps(CharacterListing card, boolean status) {
+        Character character = card.getCharacter();
+        if (card.getTalentStatus()) {
+            farmedTalentBooks.update(character.getTalentBook(), character, status);
+            farmedWeeklyTalentMaterials.update(character.getWeeklyTalentMaterial(), character, status);
         }
-        for (Artifact artifactSet : artifacts) {
-            farmedArtifacts.put(artifactSet, new TreeSet<>(new ItemComparator()));
+        if (card.getEquippedArtifactSet1() != null && card.getArtifactSet1Status()) {
+            farmedArtifacts.update(card.getEquippedArtifactSet1(), character, status);
         }
-        for (Weapon weapon : weapons) {
-            farmedWeapons.put(weapon, new TreeSet<>(new ItemComparator()));
+        if (card.getEquippedArtifactSet2() != null && card.getArtifactSet2Status()) {
+            farmedArtifacts.update(card.getEquippedArtifactSet2(), character, status);
+        }
+        if (card.getEquippedWeapon() != null && card.getWeaponStatus()) {
+            farmedWeapons.update(card.getEquippedWeapon(), character, status);
         }
     }
 
-    private void addTab(String title, JPanel jpanel) {
-        mainTabbedPane.addTab(title, jpanel);
+    /**
+     * Applies changes of the profile made outside the application. The character cards that changed replace the
+     * ones shown (dropping their unsaved changes), the farmed maps are updated for them only, and only the views
+     * that show something that changed are refreshed.
+     *
+     * @param changedListings names of the characters whose saved character card changed
+     */
+    private void applyProfileChanges(Set<String> changedListings) {
+        boolean farmedWeaponsChanged = false;
+        for (String characterName : changedListings) {
+            CharacterListing savedCard = ProfileStore.getCharacterListing(characterName);
+            if (savedCard == null) {
+                savedCard = new CharacterListing(characterName);
+            }
+            CharacterListing shownCard = getCharacterCard(characterName);
+            if (shownCard != null) {
+                updateFarmedItemMaps(shownCard, false);
+                characterListings.set(characterListings.indexOf(shownCard), savedCard);
+                farmedWeaponsChanged |= shownCard.getWeaponStatus() != savedCard.getWeaponStatus() ||
+                        !shownCard.getWeapon().equals(savedCard.getWeapon());
+            } else {
+                characterListings.add(savedCard);
+                farmedWeaponsChanged |= savedCard.getWeaponStatus();
+            }
+            updateFarmedItemMaps(savedCard, true);
+            CharacterCardGUI.reloadIfOpen(savedCard);
+        }
+        Set<Weapon> unassignedWeapons = new HashSet<>(getUnassignedFarmedWeapons());
+        WeaponTabGUI.parseWeaponsMap();
+        boolean unassignedWeaponsChanged = !unassignedWeapons.equals(getUnassignedFarmedWeapons());
+
+        if ((farmedWeaponsChanged || unassignedWeaponsChanged) && weaponTab != null) {
+            weaponTab.refresh();
+        }
+        if ((!changedListings.isEmpty() || unassignedWeaponsChanged) && domainTab != null) {
+            domainTab.refresh();
+        }
     }
 
     /**
-     * Reads character cards that have been saved in previous sessions.
+     * Creates the menu bar with the export and import of the profile. The menu is enabled once the saved data has
+     * been read.
+     *
+     * @return the menu bar
      */
-    private void readGeneratedCharacterCards() {
-        File f_dir = new File(SAVE_LOCATION);
-        if (f_dir.mkdir()) {
-            return;
+    private JMenuBar createMenuBar() {
+        profileMenu = new JMenu("Profile");
+        profileMenu.setEnabled(false);
+        JMenuItem exportItem = new JMenuItem("Export profile...");
+        exportItem.addActionListener(e -> exportProfile());
+        profileMenu.add(exportItem);
+        JMenuItem importItem = new JMenuItem("Import profile...");
+        importItem.addActionListener(e -> importProfile());
+        profileMenu.add(importItem);
+        JMenuBar menuBar = new JMenuBar();
+        menuBar.add(profileMenu);
+        return menuBar;
+    }
+
+    /**
+     * Lets the user choose a profile archive.
+     *
+     * @param export true to choose the archive to write, false to choose the archive to read
+     * @return the archive, or null if none was chosen
+     */
+    private Path chooseProfileArchive(boolean export) {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Profile archives",
+                ProfileArchive.ARCHIVE_EXTENSION));
+        int result = export ? fileChooser.showSaveDialog(this) : fileChooser.showOpenDialog(this);
+        if (result != JFileChooser.APPROVE_OPTION) {
+            return null;
+        }
+        Path archive = fileChooser.getSelectedFile().toPath();
+        if (export && !archive.getFileName().toString().toLowerCase(Locale.ROOT)
+                .endsWith("." + ProfileArchive.ARCHIVE_EXTENSION)) {
+            archive = archive.resolveSibling(archive.getFileName() + "." + ProfileArchive.ARCHIVE_EXTENSION);
         }
-        File[] savedCards = f_dir.listFiles(pathname -> !pathname.getAbsolutePath().contains(WEAPON_SAVE_FILE_NAME));
-        assert savedCards != null;
-        Gson gson = new Gson();
+        return archive;
+    }
 
-        try {
-            for (File savedCard : savedCards) {
-                JsonReader reader = new JsonReader(new FileReader(savedCard));
-                CharacterListing card = gson.fromJson(reader, CharacterListing.class);
-                characterListings.add(card);
-                if (card.getTalentStatus()) {
-                    farmedTalentBooks.get(getTalentBook(getCharacter(card.getCharacterName()).talentMaterial))
-                            .add(getCharacter(card.getCharacterName()));
-                    farmedWeeklyTalentMaterials.get(
-                                    getWeeklyTalentMaterial(getCharacter(card.getCharacterName()).weeklyTalentMaterial))
-                            .add(getCharacter(card.getCharacterName()));
-                }
-                if (!card.getArtifactSet1().isEmpty() && card.getArtifactSet1Status()) {
-                    farmedArtifacts.get(getArtifact(card.getArtifactSet1())).add(getCharacter(card.getCharacterName()));
-                }
-                if (!card.getArtifactSet2().isEmpty() && card.getArtifactSet2Status()) {
-                    farmedArtifacts.get(getArtifact(card.getArtifactSet2())).add(getCharacter(card.getCharacterName()));
-                }
-                if (!card.getWeapon().isEmpty() && card.getWeaponStatus()) {
-                    farmedWeapons.get(getWeapon(card.getWeapon())).add(getCharacter(card.getCharacterName()));
-                }
+    /**
+     * Exports the saved profile into an archive chosen by the user. Unsaved changes of open character cards are not
+     * exported.
+     */
+    private void exportProfile() {
+        Path archive = chooseProfileArchive(true);
+        if (archive == null) {
+            return;
+        }
+        profileMenu.setEnabled(false);
+        CompletableFuture.runAsync(() -> {
+            try {
+                ProfileArchive.exportProfile(archive);
+            } catch (IOException e) {
+                throw new CompletionException(e);
             }
+        }).whenComplete((v, e) -> SwingUtilities.invokeLater(() -> {
+            profileMenu.setEnabled(true);
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                System.out.println("Failed to export the profile: " + cause.getMessage());
+                JOptionPane.showMessageDialog(this, "The profile could not be exported: " + cause.getMessage(),
+                        "Export profile", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "The profile has been exported.", "Export profile",
+                        JOptionPane.INFORMATION_MESSAGE);
+            }
+        }));
+    }
 
-        } catch (IOException e) {
-            System.out.println("Could not read saved character cards.");
+    /**
+     * Merges the profile in an archive chosen by the user into the saved profile and shows the imported character
+     * cards.
+     */
+    private void importProfile() {
+        Path archive = chooseProfileArchive(false);
+        if (archive == null) {
+            return;
         }
-
+        profileMenu.setEnabled(false);
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return ProfileArchive.importProfile(archive);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((summary, e) -> SwingUtilities.invokeLater(() -> {
+            profileMenu.setEnabled(true);
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                System.out.println("Failed to import the profile: " + cause.getMessage());
+                JOptionPane.showMessageDialog(this, "The profile could not be imported: " + cause.getMessage(),
+                        "Import profile", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            applyProfileChanges(summary.importedListings);
+            String message = "Imported " + summary.importedListings.size() + " character cards and " +
+                    summary.importedWeapons + " weapons.";
+            if (!summary.skippedEntries.isEmpty()) {
+                message += "\n" + summary.skippedEntries.size() + " invalid entries have been skipped.";
+            }
+            JOptionPane.showMessageDialog(this, message, "Import profile", JOptionPane.INFORMATION_MESSAGE);
+        }));
     }
 
     /**
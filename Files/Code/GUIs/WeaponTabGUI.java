@@ -1,27 +1,21 @@
 package Files.Code.GUIs;
 
 import static Files.Code.Data.ToolData.AVAILABLE_FONTS;
-import static Files.Code.Data.ToolData.SAVE_LOCATION;
 import static Files.Code.Data.ToolData.WEAPON_TYPE.ALL_OPTIONS_BY_ENUM;
 import static Files.Code.Data.ToolData.WEAPON_TYPE.ALL_OPTIONS_BY_STRING;
 import static Files.Code.Data.ToolData.WEAPON_TYPE.NO_FILTER;
 import static Files.Code.Data.ToolData.changeFont;
 import static Files.Code.Data.ToolData.getWeapon;
-import static Files.Code.Data.ToolData.getWeaponMaterial;
-import static Files.Code.GUIs.ToolGUI.WEAPON_SAVE_FILE_NAME;
 import static Files.Code.GUIs.ToolGUI.formatString;
 import static Files.Code.GUIs.ToolGUI.isSomeoneFarmingForTheWeapon;
 
 import Files.Code.Auxiliary.ComboBoxRenderer;
 import Files.Code.Auxiliary.SearchBarListener;
-import Files.Code.Auxiliary.WeaponAdapter;
 import Files.Code.Auxiliary.WeaponTabGUIListener;
+import Files.Code.Data.ProfileSaveQueue;
+import Files.Code.Data.ProfileStore;
 import Files.Code.Data.ToolData;
 import Files.Code.Data.Weapon;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
-import com.google.gson.stream.JsonReader;
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
 
@@ -44,12 +38,8 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
-import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * This class generates the weapon tab of the main application window.
@@ -62,8 +52,10 @@ public class WeaponTabGUI implements ItemListener, ActionListener {
     private final JTextField devWeaponsTabSearchbar = new JTextField();
     private final JButton devWeaponTabSearchButton = new JButton();
     private final JPanel devWeaponTabScrollPanePanel = new JPanel();
+    private boolean searched;
     private final JCheckBox showListedCheckBox = new JCheckBox();
     private final JCheckBox showUnlistedCheckBox = new JCheckBox();
+    private final JLabel saveStatusLabel = new JLabel();
     private final JLabel showMatchedAmountLabel = new JLabel();
     private static final JComboBox<JLabel> devFilterComboBox = new JComboBox<>();
     private static final Set<Weapon> unassignedFarmedWeapons = new HashSet<>();
@@ -91,7 +83,6 @@ public class WeaponTabGUI implements ItemListener, ActionListener {
      */
     public WeaponTabGUI() {
         setUpWeaponsPanel();
-        parseWeaponsMap();
     }
 
     /**
@@ -103,28 +94,25 @@ public class WeaponTabGUI implements ItemListener, ActionListener {
         return mainPanel;
     }
 
-    private static void parseWeaponsMap() {
-        TypeToken<Set<Weapon>> token = new TypeToken<Set<Weapon>>() {
-        };
-        GsonBuilder gsonBuilder = new GsonBuilder();
-        Gson gson = gsonBuilder.registerTypeAdapter(token.getType(), new WeaponAdapter()).create();
-        File f = new File(SAVE_LOCATION + WEAPON_SAVE_FILE_NAME);
-        if (!f.exists()) {
-            return;
+    /**
+     * Reads the weapons that were listed without being assigned to a character from the profile. Only called when the
+     * profile is (re)loaded; afterwards the set of unassigned weapons is the source of truth and changes to it are
+     * saved into the profile.
+     */
+    static void parseWeaponsMap() {
+        unassignedFarmedWeapons.clear();
+        for (String weaponName : ProfileStore.getWeaponNames()) {
+            unassignedFarmedWeapons.add(getWeapon(weaponName));
         }
-        try {
-            JsonReader reader = new JsonReader(new FileReader(f));
-
-            TreeSet<Weapon> map = new TreeSet<>(ToolData.comparator);
-            map.addAll(gson.fromJson(reader, token));
+    }
 
-            if (!map.isEmpty()) {
-                for (Weapon weapon : map) {
-                    unassignedFarmedWeapons.add(getWeapon(weapon.name));
-                }
-            }
-        } catch (IOException ex) {
-            System.out.println("The weapon save file failed to parse.");
+    /**
+     * Repeats the last search, so the listed statuses of the shown weapons are up to date. Nothing is shown if there
+     * has been no search yet.
+     */
+    void refresh() {
+        if (searched) {
+            parseSearch(getSearchFlag());
         }
     }
 
@@ -172,9 +160,9 @@ public class WeaponTabGUI implements ItemListener, ActionListener {
             userFieldInput = "";
         }
 
+        searched = true;
         devWeaponTabScrollPanePanel.removeAll();
         devWeaponTabScrollPane.updateUI();
-        parseWeaponsMap();
         int matchedCount = 0;
         for (Weapon weapon : ToolData.weapons) {
             JLabel label = (JLabel) devFilterComboBox.getSelectedItem();
@@ -228,7 +216,7 @@ public class WeaponTabGUI implements ItemListener, ActionListener {
         JLabel devWeaponIcon = new JLabel();
         devWeaponIcon.setHorizontalAlignment(0);
         devWeaponIcon.setHorizontalTextPosition(0);
-        devWeaponIcon.setIcon(weapon.icon);
+        devWeaponIcon.setIcon(weapon.getIcon());
         devWeaponIcon.setText(formatString(weapon.name));
         changeFont(devWeaponIcon, AVAILABLE_FONTS.BLACK_FONT, 12);
         devWeaponIcon.setVerticalAlignment(0);
@@ -260,7 +248,7 @@ public class WeaponTabGUI implements ItemListener, ActionListener {
         JLabel devWepMaterialPreview = new JLabel();
         devWepMaterialPreview.setHorizontalAlignment(0);
         devWepMaterialPreview.setHorizontalTextPosition(0);
-        devWepMaterialPreview.setIcon(getWeaponMaterial(weapon.ascensionMaterial).icon);
+        devWepMaterialPreview.setIcon(weapon.getAscensionMaterial().getIcon());
         devWepMaterialPreview.setText("");
         devWepMaterialPreview.setVerticalAlignment(0);
         devWepMaterialPreview.setVerticalTextPosition(3);
@@ -383,6 +371,16 @@ public class WeaponTabGUI implements ItemListener, ActionListener {
         gbc.gridy = 0;
         gbc.insets = new Insets(0, 5, 0, 5);
         mainPanel.add(showMatchedAmountLabel, gbc);
+
+        // SAVE STATUS
+        saveStatusLabel.setForeground(new Color(-15072759));
+        changeFont(saveStatusLabel, AVAILABLE_FONTS.TEXT_FONT, 12);
+        ProfileSaveQueue.addStatusListener(status -> saveStatusLabel.setText(status.stringToken));
+        gbc = new GridBagConstraints();
+        gbc.gridx = 6;
+        gbc.gridy = 0;
+        gbc.insets = new Insets(0, 5, 0, 5);
+        mainPanel.add(saveStatusLabel, gbc);
     }
 
 }
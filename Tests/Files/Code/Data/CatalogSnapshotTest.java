@@ -0,0 +1,90 @@
+package Files.Code.Data;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CatalogSnapshotTest {
+    /**
+     * Offset of the string table length: magic, version and two values per data category.
+     */
+    private static final int STRING_COUNT_OFFSET = 4 + 4 + ToolData.DATA_CATEGORY.values().length * 16;
+    private static final long[] FINGERPRINT = new long[ToolData.DATA_CATEGORY.values().length * 2];
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path snapshot;
+
+    @Before
+    public void setUp() throws IOException {
+        snapshot = folder.getRoot().toPath().resolve(ToolData.CATALOG_SNAPSHOT_FILE_NAME);
+        Set<FarmableItem> materials = new TreeSet<>(ToolData.comparator);
+        materials.add(new WeaponMaterial("Guyun", "Monday/Thursday"));
+        Character character = new Character("Xiao", "Anemo", "Polearm", "Prosperity", "Shadow of the Warrior");
+        Weapon weapon = new Weapon("Primordial Jade Winged-Spear", "5", "Polearm", "Guyun");
+        Domain domain = new Domain("Hidden Palace", ToolData.DOMAIN_TYPE.WEAPON_MATERIAL, materials, true);
+        CatalogSnapshot.write(snapshot, FINGERPRINT, Collections.singletonList(character),
+                Collections.singletonList(weapon), Collections.singletonList(domain));
+    }
+
+    @Test
+    public void readsWrittenSnapshot() {
+        List<Character> characters = new ArrayList<>();
+        List<Weapon> weapons = new ArrayList<>();
+        List<Domain> domains = new ArrayList<>();
+        assertTrue(CatalogSnapshot.read(snapshot, FINGERPRINT, characters, weapons, domains));
+        assertEquals("Xiao", characters.get(0).name);
+        assertEquals("Primordial Jade Winged-Spear", weapons.get(0).name);
+        assertEquals(ToolData.DOMAIN_TYPE.WEAPON_MATERIAL, domains.get(0).type);
+        assertEquals(1, domains.get(0).materials.size());
+    }
+
+    @Test
+    public void rejectsNegativeLength() throws IOException {
+        writeInt(STRING_COUNT_OFFSET, -1);
+        assertUnreadable();
+    }
+
+    @Test
+    public void rejectsLengthBeyondEndOfFile() throws IOException {
+        writeInt(STRING_COUNT_OFFSET, Integer.MAX_VALUE);
+        assertUnreadable();
+    }
+
+    @Test
+    public void rejectsCorruptStringLength() throws IOException {
+        writeInt(STRING_COUNT_OFFSET + 4, Integer.MIN_VALUE);
+        assertUnreadable();
+    }
+
+    private void writeInt(int offset, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4);
+            buffer.putInt(value).flip();
+            channel.write(buffer, offset);
+        }
+    }
+
+    private void assertUnreadable() {
+        List<Character> characters = new ArrayList<>();
+        assertFalse(CatalogSnapshot.read(snapshot, FINGERPRINT, characters, new ArrayList<>(), new ArrayList<>()));
+        assertTrue(characters.isEmpty());
+    }
+}
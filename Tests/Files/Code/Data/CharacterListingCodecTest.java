@@ -0,0 +1,131 @@
+package Files.Code.Data;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class CharacterListingCodecTest {
+
+    @Test
+    public void roundTripsEmptyReferences() throws IOException {
+        CharacterListing listing = new CharacterListing("Albedo");
+        listing.setTalentStatus(true);
+
+        List<CharacterListing> listings = new ArrayList<>();
+        List<String> weapons = new ArrayList<>();
+        decode(encode(Collections.singletonList(listing), Collections.emptyList()), listings, weapons);
+
+        assertEquals(1, listings.size());
+        assertListingEquals(listing, listings.get(0));
+        assertEquals("", listings.get(0).getWeapon());
+        assertEquals("", listings.get(0).getArtifactSet1());
+        assertEquals("", listings.get(0).getArtifactSet2());
+        assertEquals(Collections.emptyList(), weapons);
+    }
+
+    @Test
+    public void roundTripsNonAsciiNotes() throws IOException {
+        CharacterListing listing = new CharacterListing("Ganyu");
+        listing.setWeapon("Amos' Bow");
+        listing.setWeaponStatus(true);
+        listing.setArtifactSet1("Blizzard Strayer");
+        listing.setArtifactSet2Status(true);
+        listing.setCharacterNotes("Café ❄ 甘雨 — Ørjan 😀");
+
+        List<CharacterListing> listings = new ArrayList<>();
+        decode(encode(Collections.singletonList(listing), Collections.singletonList("Amos' Bow")), listings,
+                new ArrayList<>());
+
+        assertListingEquals(listing, listings.get(0));
+    }
+
+    @Test
+    public void roundTripsMultiByteVarInts() throws IOException {
+        // The dictionary holds over 20000 names, so the ids take up to three bytes.
+        List<CharacterListing> characterListings = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            CharacterListing listing = new CharacterListing("Character " + i);
+            listing.setWeapon("Weapon " + i);
+            listing.setArtifactSet1("Set " + i);
+            listing.setArtifactSet2("Set " + (i + 1));
+            characterListings.add(listing);
+        }
+        List<String> weaponNames = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            weaponNames.add("Weapon " + i);
+        }
+
+        List<CharacterListing> listings = new ArrayList<>();
+        List<String> weapons = new ArrayList<>();
+        decode(encode(characterListings, weaponNames), listings, weapons);
+
+        assertEquals(characterListings.size(), listings.size());
+        for (int i = 0; i < listings.size(); i++) {
+            assertListingEquals(characterListings.get(i), listings.get(i));
+        }
+        assertEquals(weaponNames, weapons);
+    }
+
+    @Test
+    public void rejectsOverlongStrings() throws IOException {
+        // Version 1, one name in the dictionary, which claims to be Integer.MAX_VALUE bytes long.
+        byte[] encoding = {1, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        try {
+            decode(encoding, new ArrayList<>(), new ArrayList<>());
+            fail("The overlong string was read.");
+        } catch (IOException e) {
+            assertEquals("The profile is corrupt.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void rejectsTruncatedEncodings() throws IOException {
+        CharacterListing listing = new CharacterListing("Albedo");
+        listing.setCharacterNotes("Notes");
+        byte[] encoding = encode(Collections.singletonList(listing), Collections.emptyList());
+        try {
+            decode(Arrays.copyOf(encoding, encoding.length - 3), new ArrayList<>(), new ArrayList<>());
+            fail("The truncated encoding was read.");
+        } catch (IOException e) {
+            // Expected.
+        }
+    }
+
+    private static byte[] encode(Collection<CharacterListing> listings, Collection<String> weapons)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        CharacterListingCodec.write(out, listings, weapons);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void decode(byte[] encoding, List<CharacterListing> listings, List<String> weapons)
+            throws IOException {
+        CharacterListingCodec.read(new DataInputStream(new ByteArrayInputStream(encoding)), listings, weapons);
+    }
+
+    private static void assertListingEquals(CharacterListing expected, CharacterListing actual) {
+        assertEquals(expected.getCharacterName(), actual.getCharacterName());
+        assertEquals(expected.getCharacterNotes(), actual.getCharacterNotes());
+        assertEquals(expected.getWeapon(), actual.getWeapon());
+        assertEquals(expected.getWeaponStatus(), actual.getWeaponStatus());
+        assertEquals(expected.getArtifactSet1(), actual.getArtifactSet1());
+        assertEquals(expected.getArtifactSet1Status(), actual.getArtifactSet1Status());
+        assertEquals(expected.getArtifactSet2(), actual.getArtifactSet2());
+        assertEquals(expected.getArtifactSet2Status(), actual.getArtifactSet2Status());
+        assertEquals(expected.getTalentStatus(), actual.getTalentStatus());
+    }
+}
@@ -0,0 +1,123 @@
+package Files.Code.Data;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JdbcProfileStorageTest {
+    private static final Gson gson = new Gson();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Character xiao = new Character("Xiao", "Anemo", "Polearm", "Prosperity", "Shadow of the Warrior");
+    private final Character zhongli = new Character("Zhongli", "Geo", "Polearm", "Gold", "Tusk of Monoceros Caeli");
+    private final Weapon spear = new Weapon("Primordial Jade Winged-Spear", "5", "Polearm", "Guyun");
+    private String url;
+    private final Map<String, JsonObject> listings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Set<String> weapons = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    @Before
+    public void setUp() {
+        ToolData.characters.addAll(Arrays.asList(xiao, zhongli));
+        ToolData.weapons.add(spear);
+        url = "jdbc:h2:" + folder.getRoot().toPath().resolve("profile").toAbsolutePath();
+    }
+
+    @After
+    public void tearDown() {
+        ToolData.characters.removeAll(Arrays.asList(xiao, zhongli));
+        ToolData.weapons.remove(spear);
+    }
+
+    @Test
+    public void readsReplacedProfile() throws IOException {
+        JdbcProfileStorage storage = JdbcProfileStorage.open(url);
+        assertFalse(storage.exists());
+        CharacterListing listing = new CharacterListing("Xiao");
+        listing.setWeapon(spear.name);
+        listing.setCharacterNotes("Café ❄");
+        listings.put("Xiao", gson.toJsonTree(listing).getAsJsonObject());
+        listings.put("Zhongli", gson.toJsonTree(new CharacterListing("Zhongli")).getAsJsonObject());
+        weapons.add("Amos' Bow");
+        storage.replace(listings, weapons);
+
+        JdbcProfileStorage reopened = JdbcProfileStorage.open(url);
+        assertTrue(reopened.exists());
+        Map<String, JsonObject> readListings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Set<String> readWeapons = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        reopened.read(readListings, readWeapons);
+        assertEquals(listings, readListings);
+        assertEquals(weapons, readWeapons);
+    }
+
+    @Test
+    public void answersFarmingQueriesFromWrittenChanges() throws IOException {
+        JdbcProfileStorage storage = JdbcProfileStorage.open(url);
+        storage.replace(listings, weapons);
+        write(storage, set("Xiao", "weapon", spear.name), set("Xiao", "weaponStatus", true),
+                set("Xiao", "talentStatus", true), set("Zhongli", "weapon", spear.name));
+
+        assertEquals(Collections.singletonList("Xiao"), storage.getFarmingCharacters(spear));
+        assertEquals(Collections.singletonList("Xiao"),
+                storage.getFarmingCharacters(new WeaponMaterial("Guyun", "Monday/Thursday")));
+        assertEquals(Collections.singletonList("Xiao"),
+                storage.getFarmingCharacters(new TalentMaterial("Prosperity", "Wednesday/Saturday")));
+        assertEquals(Collections.emptyList(),
+                storage.getFarmingCharacters(new TalentMaterial("Gold", "Wednesday/Saturday")));
+
+        // The links of a card are replaced when it changes.
+        write(storage, set("Zhongli", "weaponStatus", true), set("Xiao", "weaponStatus", false));
+        assertEquals(Collections.singletonList("Zhongli"), storage.getFarmingCharacters(spear));
+    }
+
+    @Test
+    public void refreshReadsOnlyChangesOfOtherStorages() throws IOException {
+        JdbcProfileStorage storage = JdbcProfileStorage.open(url);
+        storage.replace(listings, weapons);
+        write(storage, set("Xiao", "talentStatus", true));
+        Map<String, JsonObject> readListings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        assertEquals(Collections.emptyList(), storage.refresh(readListings, new TreeSet<>()));
+
+        JdbcProfileStorage other = JdbcProfileStorage.open(url);
+        other.read(new TreeMap<>(String.CASE_INSENSITIVE_ORDER), new TreeSet<>());
+        write(other, set("Zhongli", "talentStatus", true));
+        assertNull(storage.refresh(readListings, new TreeSet<>()));
+        assertEquals(listings, readListings);
+    }
+
+    private JsonObject set(String characterName, String field, Object value) {
+        JsonObject change = new JsonObject();
+        change.addProperty(ProfileStorage.OPERATION_KEY, ProfileStorage.PROFILE_CHANGE.SET_FIELD.stringToken);
+        change.addProperty(ProfileStorage.CHARACTER_KEY, characterName);
+        change.addProperty(ProfileStorage.FIELD_KEY, field);
+        change.add(ProfileStorage.VALUE_KEY, gson.toJsonTree(value));
+        return change;
+    }
+
+    private void write(JdbcProfileStorage storage, JsonObject... changes) throws IOException {
+        List<JsonObject> records = Arrays.asList(changes);
+        for (JsonObject change : records) {
+            ProfileStore.applyChange(change, listings, weapons);
+        }
+        storage.write(records, listings, weapons);
+    }
+}
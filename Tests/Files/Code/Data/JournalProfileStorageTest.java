@@ -0,0 +1,165 @@
+package Files.Code.Data;
+
+import com.google.gson.JsonObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class JournalProfileStorageTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path saveLocation;
+    private Path journal;
+    private final Map<String, JsonObject> listings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Set<String> weapons = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    @Before
+    public void setUp() {
+        saveLocation = folder.getRoot().toPath();
+        journal = saveLocation.resolve(JournalProfileStorage.JOURNAL_FILE_NAME);
+    }
+
+    @Test
+    public void skipsTruncatedLastRecord() throws IOException {
+        JournalProfileStorage storage = new JournalProfileStorage(saveLocation);
+        storage.replace(listings, weapons);
+        listWeapon(storage, "Aqua Simulacra");
+        listWeapon(storage, "Amos' Bow");
+        // The application was killed while appending a record.
+        Files.write(journal, "{\"op\":\"list\",\"wea".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        JournalProfileStorage reloaded = new JournalProfileStorage(saveLocation);
+        assertEquals(weapons, read(reloaded));
+
+        // The journal is started anew, so the next change is not appended after the incomplete record.
+        listWeapon(reloaded, "Skyward Harp");
+        assertEquals(weapons, read(new JournalProfileStorage(saveLocation)));
+    }
+
+    @Test
+    public void replaysPreviousGenerationJournalAfterFailedCompaction() throws IOException {
+        JournalProfileStorage storage = new JournalProfileStorage(saveLocation);
+        storage.replace(listings, weapons);
+        listWeapon(storage, "Aqua Simulacra");
+        listWeapon(storage, "Amos' Bow");
+
+        // The snapshot of the next generation is written, but the new journal cannot be.
+        Path temporaryJournal = journal.resolveSibling(JournalProfileStorage.JOURNAL_FILE_NAME + ".tmp");
+        Files.createDirectory(temporaryJournal);
+        try {
+            storage.replace(listings, weapons);
+            fail("The journal was written.");
+        } catch (IOException e) {
+            // Expected.
+        }
+        listWeapon(storage, "Skyward Harp");
+        Files.delete(temporaryJournal);
+
+        JournalProfileStorage reloaded = new JournalProfileStorage(saveLocation);
+        assertEquals(weapons, read(reloaded));
+        listWeapon(reloaded, "Elegy for the End");
+        assertEquals(weapons, read(new JournalProfileStorage(saveLocation)));
+    }
+
+    @Test
+    public void ignoresJournalOfOlderGeneration() throws IOException {
+        JournalProfileStorage storage = new JournalProfileStorage(saveLocation);
+        storage.replace(listings, weapons);
+        listWeapon(storage, "Aqua Simulacra");
+        storage.replace(listings, weapons);
+        Files.write(journal, Arrays.asList("{\"generation\":0}", "{\"op\":\"list\",\"weapon\":\"Amos' Bow\"}"),
+                StandardCharsets.UTF_8);
+
+        Set<String> readWeapons = read(new JournalProfileStorage(saveLocation));
+        assertEquals(weapons, readWeapons);
+        assertFalse(readWeapons.contains("Amos' Bow"));
+    }
+
+    @Test
+    public void refreshSkipsOwnWrites() throws IOException {
+        JournalProfileStorage storage = new JournalProfileStorage(saveLocation);
+        storage.replace(listings, weapons);
+        listWeapon(storage, "Aqua Simulacra");
+        assertEquals(Collections.emptyList(), refresh(storage, new TreeSet<>()));
+    }
+
+    @Test
+    public void refreshReadsOnlyAppendedRecords() throws IOException {
+        JournalProfileStorage storage = new JournalProfileStorage(saveLocation);
+        storage.replace(listings, weapons);
+        listWeapon(storage, "Aqua Simulacra");
+        JournalProfileStorage other = new JournalProfileStorage(saveLocation);
+        read(other);
+
+        listWeapon(storage, "Amos' Bow");
+        Set<String> readWeapons = new TreeSet<>();
+        List<JsonObject> changes = refresh(other, readWeapons);
+        assertEquals(1, changes.size());
+        assertEquals("Amos' Bow", changes.get(0).get(ProfileStorage.WEAPON_KEY).getAsString());
+        assertTrue(readWeapons.isEmpty());
+
+        // A record that is still being appended is read once it is complete.
+        Files.write(journal, "{\"op\":\"list\",\"wea".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertEquals(Collections.emptyList(), refresh(other, readWeapons));
+        Files.write(journal, "pon\":\"Skyward Harp\"}\n".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        changes = refresh(other, readWeapons);
+        assertEquals(1, changes.size());
+        assertEquals("Skyward Harp", changes.get(0).get(ProfileStorage.WEAPON_KEY).getAsString());
+    }
+
+    @Test
+    public void refreshReadsCompactedProfileCompletely() throws IOException {
+        JournalProfileStorage storage = new JournalProfileStorage(saveLocation);
+        storage.replace(listings, weapons);
+        JournalProfileStorage other = new JournalProfileStorage(saveLocation);
+        read(other);
+
+        listWeapon(storage, "Aqua Simulacra");
+        storage.replace(listings, weapons);
+        Set<String> readWeapons = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        assertNull(refresh(other, readWeapons));
+        assertEquals(weapons, readWeapons);
+    }
+
+    private void listWeapon(JournalProfileStorage storage, String weapon) throws IOException {
+        JsonObject change = new JsonObject();
+        change.addProperty(ProfileStorage.OPERATION_KEY, ProfileStorage.PROFILE_CHANGE.LIST_WEAPON.stringToken);
+        change.addProperty(ProfileStorage.WEAPON_KEY, weapon);
+        weapons.add(weapon);
+        storage.write(Collections.singletonList(change), listings, weapons);
+    }
+
+    private static List<JsonObject> refresh(JournalProfileStorage storage, Set<String> readWeapons)
+            throws IOException {
+        return storage.refresh(new TreeMap<>(String.CASE_INSENSITIVE_ORDER), readWeapons);
+    }
+
+    private static Set<String> read(JournalProfileStorage storage) throws IOException {
+        Map<String, JsonObject> readListings = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Set<String> readWeapons = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        storage.read(readListings, readWeapons);
+        return readWeapons;
+    }
+}
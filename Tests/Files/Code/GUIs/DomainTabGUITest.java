@@ -0,0 +1,36 @@
+package Files.Code.GUIs;
+
+import org.junit.Test;
+
+import static Files.Code.GUIs.DomainTabGUI.selectIds;
+import static org.junit.Assert.assertArrayEquals;
+
+public class DomainTabGUITest {
+
+    @Test
+    public void selectsListedUsers() {
+        assertArrayEquals(new int[]{3, 7}, selectIds(new int[]{1, 3, 5, 7}, new int[]{0, 3, 4, 7, 9}, true));
+    }
+
+    @Test
+    public void selectsUnlistedUsers() {
+        assertArrayEquals(new int[]{1, 5}, selectIds(new int[]{1, 3, 5, 7}, new int[]{0, 3, 4, 7, 9}, false));
+    }
+
+    @Test
+    public void selectsFromDisjointAndEmptyArrays() {
+        assertArrayEquals(new int[0], selectIds(new int[]{1, 2}, new int[]{5, 6}, true));
+        assertArrayEquals(new int[]{1, 2}, selectIds(new int[]{1, 2}, new int[]{5, 6}, false));
+        assertArrayEquals(new int[]{5, 6}, selectIds(new int[]{5, 6}, new int[]{1, 2}, false));
+        assertArrayEquals(new int[0], selectIds(new int[]{1, 2}, new int[0], true));
+        assertArrayEquals(new int[]{1, 2}, selectIds(new int[]{1, 2}, new int[0], false));
+        assertArrayEquals(new int[0], selectIds(new int[0], new int[]{1, 2}, true));
+    }
+
+    @Test
+    public void selectsAllWhenEverythingIsListed() {
+        int[] ids = {0, 1, 2, 130, 4000};
+        assertArrayEquals(ids, selectIds(ids, ids, true));
+        assertArrayEquals(new int[0], selectIds(ids, ids, false));
+    }
+}